@@ -1,41 +1,37 @@
 package com.example;
 
-import io.quarkus.arc.Arc;
-import io.quarkus.arc.ArcContainer;
+import io.quarkus.runtime.QuarkusApplication;
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpServer;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 
 /**
  * Quarkus application that demonstrates CDI integration with Vert.x HTTP server.
  *
  * This application:
- * 1. Initializes the Quarkus ArC (CDI) container
+ * 1. Gets its CDI beans from the wiring generated at build time
+ *    (io.quarkus.runner.GeneratedMain creates and injects them, then calls run)
  * 2. Creates a Vert.x HTTP server
  * 3. Uses CDI beans to handle HTTP requests
  */
-public class QuarkusApp {
+@Singleton
+public class QuarkusApp implements QuarkusApplication {
 
-    public static void main(String... args) {
-        System.out.println("Starting Quarkus application with CDI support...");
-
-        // Initialize Quarkus ArC (CDI container)
-        System.out.println("Initializing ArC CDI container...");
-        ArcContainer container = Arc.initialize();
-
-        if (container == null) {
-            System.err.println("Failed to initialize ArC container");
-            System.exit(1);
-        }
+    @Inject
+    GreetingService greetingService;
 
-        // Get the CDI bean instance
-        GreetingService greetingService = container.instance(GreetingService.class).get();
+    @Override
+    public int run(String... args) {
+        System.out.println("Starting Quarkus application with CDI support...");
 
+        // Injected at startup by the generated QuarkusApp_Factory, no container lookup
         if (greetingService == null) {
-            System.err.println("Failed to get GreetingService bean");
-            System.exit(1);
+            System.err.println("GreetingService was not injected");
+            return 1;
         }
 
-        System.out.println("CDI container initialized successfully!");
+        System.out.println("CDI beans wired at build time!");
 
         // Create Vert.x instance (what Quarkus uses for HTTP)
         Vertx vertx = Vertx.vertx();
@@ -80,13 +76,8 @@ public class QuarkusApp {
             }
         });
 
-        // Keep the application running
+        // Keep the application running (Vert.x threads are non-daemon)
         System.out.println("Application is running. Press Ctrl+C to stop.");
-
-        // Register shutdown hook to properly close ArC container
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("Shutting down ArC container...");
-            Arc.shutdown();
-        }));
+        return 0;
     }
 }
@@ -5,6 +5,69 @@ Jandex is used by Quarkus to index classes at build time for reflection
 and annotation scanning without runtime classpath scanning.
 """
 
+load("@rules_java//java:defs.bzl", "JavaInfo")
+
+JandexIndexInfo = provider(
+    doc = "Prebuilt Jandex index of one library's own JARs (jandex_library_aspect)",
+    fields = {
+        "index": "File or None: the .idx covering `jars`",
+        "jars": "list of Files: class JARs of the library",
+    },
+)
+
+def _jandex_library_aspect_impl(target, ctx):
+    """Indexes the JARs a JavaInfo target itself contributes.
+
+    One action per library, keyed only by that library's JARs, so the
+    index is cached once and shared by every application depending on it.
+    """
+    if JavaInfo not in target:
+        return [JandexIndexInfo(index = None, jars = [])]
+
+    jars = [jar.class_jar for jar in target[JavaInfo].outputs.jars]
+    if not jars:
+        return [JandexIndexInfo(index = None, jars = [])]
+
+    index = ctx.actions.declare_file(ctx.label.name + "-jandex.idx")
+    args = ctx.actions.args()
+    args.add("--output", index)
+    args.add_all(jars)
+
+    ctx.actions.run(
+        outputs = [index],
+        inputs = jars,
+        executable = ctx.executable._jandex_tool,
+        arguments = [args],
+        mnemonic = "JandexLibraryIndex",
+        progress_message = "Indexing library %s" % ctx.label,
+    )
+
+    return [
+        JandexIndexInfo(index = index, jars = jars),
+        OutputGroupInfo(jandex_index = depset([index])),
+    ]
+
+jandex_library_aspect = aspect(
+    implementation = _jandex_library_aspect_impl,
+    attr_aspects = ["deps", "runtime_deps", "exports"],
+    attrs = {
+        "_jandex_tool": attr.label(
+            default = Label("//v1-custom/tools:jandex"),
+            executable = True,
+            cfg = "exec",
+        ),
+    },
+    doc = """
+    Produces one Jandex index (<name>-jandex.idx) per JavaInfo library.
+
+    Attached to the dependency attributes of quarkus_augment, which passes
+    the indexes to the augmentor in place of scanning the library JARs.
+    Only libraries whose JARs changed are ever re-indexed. Build the
+    indexes of any target with
+    `bazel build --aspects=//v1-custom/rules:jandex.bzl%jandex_library_aspect --output_groups=jandex_index`.
+    """,
+)
+
 def _jandex_index_impl(ctx):
     """Implementation of the jandex_index rule.
 
@@ -104,5 +167,17 @@ jandex_merge = rule(
             cfg = "exec",
         ),
     },
-    doc = "Merges multiple Jandex index files into one.",
+    doc = """
+    Merges multiple Jandex index files into one.
+
+    The indexes are read and re-emitted as a single index without scanning
+    any class file; a class present in several indexes is taken from the
+    first one listed.
+
+    Example:
+        jandex_merge(
+            name = "app_index",
+            indexes = [":my_index", ":libs_index"],
+        )
+    """,
 )
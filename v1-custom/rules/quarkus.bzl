@@ -29,7 +29,9 @@ load(
 )
 load(
     "//v1-custom/rules:jandex.bzl",
+    _JandexIndexInfo = "JandexIndexInfo",
     _jandex_index = "jandex_index",
+    _jandex_library_aspect = "jandex_library_aspect",
     _jandex_merge = "jandex_merge",
 )
 
@@ -46,3 +48,5 @@ quarkus_extension_deployment = _quarkus_extension_deployment
 # Utility rules
 jandex_index = _jandex_index
 jandex_merge = _jandex_merge
+jandex_library_aspect = _jandex_library_aspect
+JandexIndexInfo = _JandexIndexInfo
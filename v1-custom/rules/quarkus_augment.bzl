@@ -12,6 +12,28 @@ This is the core of Quarkus's build-time optimization.
 """
 
 load("@rules_java//java:defs.bzl", "JavaInfo")
+load("//v1-custom/rules:jandex.bzl", "JandexIndexInfo", "jandex_library_aspect")
+
+# resource_set callbacks must be top-level functions, so every allowed
+# index_threads value has its own.
+def _resources_1cpu(_os, _inputs_size):
+    return {"cpu": 1}
+
+def _resources_2cpu(_os, _inputs_size):
+    return {"cpu": 2}
+
+def _resources_4cpu(_os, _inputs_size):
+    return {"cpu": 4}
+
+def _resources_8cpu(_os, _inputs_size):
+    return {"cpu": 8}
+
+_INDEX_RESOURCE_SETS = {
+    1: _resources_1cpu,
+    2: _resources_2cpu,
+    4: _resources_4cpu,
+    8: _resources_8cpu,
+}
 
 def _quarkus_augment_impl(ctx):
     """
@@ -51,17 +73,33 @@ def _quarkus_augment_impl(ctx):
     if ctx.attr.main_class:
         args.add("--main-class", ctx.attr.main_class)
     
+    # Prebuilt per-library Jandex indexes (jandex_library_aspect): the
+    # augmentor reads these instead of scanning the JARs
+    prebuilt_indexes = []
+    jar_indexes = []
+    for dep in ctx.attr.application + ctx.attr.runtime_deps:
+        info = dep[JandexIndexInfo]
+        if info.index:
+            prebuilt_indexes.append(info.index)
+            jar_indexes.extend(["%s=%s" % (jar.path, info.index.path) for jar in info.jars])
+    args.add_all("--jar-indexes", jar_indexes)
+    
+    args.add("--index-threads", str(ctx.attr.index_threads))
+    
     # Add Quarkus build properties
     args.add("--quarkus.application.name=" + ctx.attr.application_name)
     
     # Run augmentation tool
     ctx.actions.run(
         outputs = [augmented_jar],
-        inputs = application_jars + runtime_jars + deployment_jars,
+        inputs = application_jars + runtime_jars + deployment_jars + prebuilt_indexes,
         executable = ctx.executable._augmentor,
         arguments = [args],
         mnemonic = "QuarkusAugment",
         progress_message = "Augmenting Quarkus application %s" % ctx.label.name,
+        # Reserve as many CPUs as the augmentor runs index threads, so Bazel
+        # does not schedule other actions onto them
+        resource_set = _INDEX_RESOURCE_SETS[ctx.attr.index_threads],
     )
     
     # Return JavaInfo provider so this can be used as a dependency
@@ -78,11 +116,13 @@ quarkus_augment = rule(
     attrs = {
         "application": attr.label_list(
             providers = [JavaInfo],
+            aspects = [jandex_library_aspect],
             mandatory = True,
             doc = "Application library to augment (compiled classes)",
         ),
         "runtime_deps": attr.label_list(
             providers = [JavaInfo],
+            aspects = [jandex_library_aspect],
             default = [],
             doc = "Runtime dependencies (Quarkus extensions, libraries)",
         ),
@@ -98,6 +138,11 @@ quarkus_augment = rule(
             mandatory = True,
             doc = "Quarkus application name",
         ),
+        "index_threads": attr.int(
+            default = 2,
+            values = [1, 2, 4, 8],
+            doc = "Threads indexing JARs in parallel; the action reserves as many CPUs (Bazel resource_set)",
+        ),
         "_augmentor": attr.label(
             default = Label("//v1-custom/tools:quarkus_augmentor"),
             executable = True,
@@ -114,6 +159,8 @@ quarkus_augment = rule(
     Build Flow:
     1. Input: Compiled application JAR (from java_library)
     2. Process: Run Jandex indexing + ARC processor + bytecode optimization
+       (application and runtime libraries come pre-indexed, one cached .idx
+       per library from jandex_library_aspect)
     3. Output: Augmented JAR with generated classes
     
     Example:
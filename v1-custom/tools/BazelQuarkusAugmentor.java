@@ -2,8 +2,10 @@ package io.quarkus.bazel.tools;
 
 import io.quarkus.bazel.augmentor.AugmentationContext;
 import io.quarkus.bazel.augmentor.ArgumentParser;
+import io.quarkus.bazel.discovery.BeanInfo;
 import io.quarkus.bazel.discovery.DiscoveryResult;
 import io.quarkus.bazel.discovery.RouteDiscovery;
+import io.quarkus.bazel.generator.BeanWiringGenerator;
 import io.quarkus.bazel.generator.GeneratedClass;
 import io.quarkus.bazel.generator.MainClassGenerator;
 import io.quarkus.bazel.indexer.IndexBuilder;
@@ -20,7 +22,7 @@ import java.util.List;
  * 1. Parse arguments
  * 2. Create Jandex index
  * 3. Discover routes
- * 4. Generate main class
+ * 4. Generate bean wiring and main class
  * 5. Package augmented JAR
  */
 public class BazelQuarkusAugmentor {
@@ -42,8 +44,15 @@ public class BazelQuarkusAugmentor {
         System.out.println("Discovered " + discovery.getBeans().size() + " CDI beans");
         System.out.println();
         
+        List<BeanInfo> wiredBeans = BeanWiringGenerator.wiredBeans(
+            discovery.getBeanRegistry(),
+            IndexBuilder.classNames(context.getApplicationJars())
+        );
+        System.out.println("Wired " + wiredBeans.size() + " beans at build time");
+        
         List<GeneratedClass> generated = new ArrayList<>();
-        generated.add(MainClassGenerator.generate(discovery));
+        generated.addAll(BeanWiringGenerator.generate(discovery.getBeanRegistry(), wiredBeans));
+        generated.add(MainClassGenerator.generate(discovery, wiredBeans));
         
         JarPackager.packageJar(context, generated);
         
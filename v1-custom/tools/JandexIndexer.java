@@ -1,13 +1,28 @@
 package io.quarkus.bazel.tools;
 
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.CompositeIndex;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexView;
 import org.jboss.jandex.IndexWriter;
 import org.jboss.jandex.Indexer;
 
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -15,12 +30,14 @@ import java.util.jar.JarFile;
  * Jandex indexer tool for Bazel.
  *
  * Generates Jandex index files from JAR files for Quarkus build-time scanning.
+ * With --merge, the inputs are .idx files that are read and combined into
+ * one index instead, so libraries indexed once can be merged cheaply.
  */
 public class JandexIndexer {
 
     public static void main(String[] args) throws Exception {
         if (args.length < 2) {
-            System.err.println("Usage: JandexIndexer --output <output.idx> <input1.jar> [input2.jar ...]");
+            System.err.println("Usage: JandexIndexer --output <output.idx> [--merge] <input1.jar|idx> [input2 ...]");
             System.exit(1);
         }
 
@@ -45,17 +62,28 @@ public class JandexIndexer {
             System.exit(1);
         }
 
-        Indexer indexer = new Indexer();
+        Index index;
+        if (merge) {
+            // Combine prebuilt indexes without touching any class file
+            List<Index> indexes = new ArrayList<>();
+            for (; i < args.length; i++) {
+                System.out.println("Reading index: " + args[i]);
+                indexes.add(readIndex(args[i]));
+            }
+            index = mergeIndexes(indexes);
+        } else {
+            Indexer indexer = new Indexer();
 
-        // Process all input JAR files
-        for (; i < args.length; i++) {
-            String jarPath = args[i];
-            System.out.println("Indexing JAR: " + jarPath);
-            indexJar(indexer, jarPath);
+            // Process all input JAR files
+            for (; i < args.length; i++) {
+                String jarPath = args[i];
+                System.out.println("Indexing JAR: " + jarPath);
+                indexJar(indexer, jarPath);
+            }
+            index = indexer.complete();
         }
 
         // Write the index
-        Index index = indexer.complete();
         try (FileOutputStream out = new FileOutputStream(outputFile)) {
             IndexWriter writer = new IndexWriter(out);
             writer.write(index);
@@ -65,6 +93,64 @@ public class JandexIndexer {
         System.out.println("Indexed " + index.getKnownClasses().size() + " classes");
     }
 
+    private static Index readIndex(String indexPath) throws Exception {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(indexPath))) {
+            return new IndexReader(in).read();
+        }
+    }
+
+    /**
+     * Re-emits several indexes as one. A class present in more than one
+     * index is taken from the first, like on a class path, and the
+     * annotation, subclass, implementor and user tables are rebuilt from
+     * the merged classes.
+     */
+    static Index mergeIndexes(List<Index> indexes) {
+        CompositeIndex composite = CompositeIndex.create(new ArrayList<IndexView>(indexes));
+
+        Map<DotName, ClassInfo> classes = new LinkedHashMap<>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.putIfAbsent(classInfo.name(), classInfo);
+            }
+        }
+
+        Map<DotName, List<AnnotationInstance>> annotations = new HashMap<>();
+        Map<DotName, List<ClassInfo>> subclasses = new HashMap<>();
+        Map<DotName, List<ClassInfo>> subinterfaces = new HashMap<>();
+        Map<DotName, List<ClassInfo>> implementors = new HashMap<>();
+        Map<DotName, List<ClassInfo>> users = new HashMap<>();
+        for (ClassInfo classInfo : classes.values()) {
+            for (AnnotationInstance annotation : classInfo.annotations()) {
+                annotations.computeIfAbsent(annotation.name(), k -> new ArrayList<>()).add(annotation);
+            }
+            if (classInfo.superName() != null) {
+                subclasses.computeIfAbsent(classInfo.superName(), k -> new ArrayList<>()).add(classInfo);
+            }
+            Map<DotName, List<ClassInfo>> direct = Modifier.isInterface(classInfo.flags()) ? subinterfaces : implementors;
+            for (DotName interfaceName : classInfo.interfaceNames()) {
+                direct.computeIfAbsent(interfaceName, k -> new ArrayList<>()).add(classInfo);
+            }
+
+            // Users are rebuilt for indexed classes only; users of JDK and
+            // other unindexed types are not carried over
+            Set<DotName> seen = new HashSet<>();
+            List<ClassInfo> classUsers = new ArrayList<>();
+            for (ClassInfo user : composite.getKnownUsers(classInfo.name())) {
+                if (seen.add(user.name())) {
+                    classUsers.add(classes.get(user.name()));
+                }
+            }
+            if (!classUsers.isEmpty()) {
+                users.put(classInfo.name(), classUsers);
+            }
+        }
+
+        Index merged = Index.create(annotations, subclasses, subinterfaces, implementors, classes, users);
+        System.out.println("Merged " + indexes.size() + " indexes");
+        return merged;
+    }
+
     private static void indexJar(Indexer indexer, String jarPath) throws Exception {
         try (JarFile jarFile = new JarFile(jarPath)) {
             Enumeration<JarEntry> entries = jarFile.entries();
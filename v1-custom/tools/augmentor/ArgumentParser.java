@@ -3,7 +3,9 @@ package io.quarkus.bazel.augmentor;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Parses command-line arguments for augmentation.
@@ -36,6 +38,16 @@ public class ArgumentParser {
                     result.mainClass = args[++i];
                     i++;
                     break;
+                case "--jar-indexes":
+                    i++;
+                    while (i < args.length && !args[i].startsWith("--")) {
+                        result.jarIndexes.add(args[i++]);
+                    }
+                    break;
+                case "--index-threads":
+                    result.indexThreads = Integer.parseInt(args[++i]);
+                    i++;
+                    break;
                 case "--runtime-jars":
                     i++;
                     while (i < args.length && !args[i].startsWith("--")) {
@@ -89,9 +101,19 @@ public class ArgumentParser {
             deploymentJars.add(Paths.get(jar));
         }
         
+        // <jar>=<prebuilt .idx>, one entry per library JAR
+        Map<Path, Path> jarIndexes = new LinkedHashMap<>();
+        for (String entry : args.jarIndexes) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                jarIndexes.put(Paths.get(entry.substring(0, separator)), Paths.get(entry.substring(separator + 1)));
+            }
+        }
+        
         Path outputJar = Paths.get(args.outputJar);
         String mainClass = args.mainClass != null ? args.mainClass : "io.quarkus.runner.GeneratedMain";
         String appName = args.properties.getOrDefault("quarkus.application.name", "application");
+        int indexThreads = args.indexThreads > 0 ? args.indexThreads : Runtime.getRuntime().availableProcessors();
         
         return new AugmentationContext(
             appJars,
@@ -99,16 +121,20 @@ public class ArgumentParser {
             deploymentJars,
             outputJar,
             mainClass,
-            appName
+            appName,
+            indexThreads,
+            jarIndexes
         );
     }
     
     private static class ParsedArgs {
         String outputJar;
         String mainClass;
+        int indexThreads;
         List<String> applicationJars = new ArrayList<>();
         List<String> runtimeJars = new ArrayList<>();
         List<String> deploymentJars = new ArrayList<>();
+        List<String> jarIndexes = new ArrayList<>();
         java.util.Map<String, String> properties = new java.util.HashMap<>();
     }
 }
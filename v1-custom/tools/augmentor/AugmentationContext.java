@@ -2,6 +2,7 @@ package io.quarkus.bazel.augmentor;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Context object containing all inputs for augmentation.
@@ -13,6 +14,8 @@ public class AugmentationContext {
     private final Path outputJar;
     private final String mainClass;
     private final String applicationName;
+    private final int indexThreads;
+    private final Map<Path, Path> jarIndexes;
     
     public AugmentationContext(
             List<Path> applicationJars,
@@ -20,13 +23,17 @@ public class AugmentationContext {
             List<Path> deploymentJars,
             Path outputJar,
             String mainClass,
-            String applicationName) {
+            String applicationName,
+            int indexThreads,
+            Map<Path, Path> jarIndexes) {
         this.applicationJars = applicationJars;
         this.runtimeJars = runtimeJars;
         this.deploymentJars = deploymentJars;
         this.outputJar = outputJar;
         this.mainClass = mainClass;
         this.applicationName = applicationName;
+        this.indexThreads = indexThreads;
+        this.jarIndexes = jarIndexes;
     }
     
     public List<Path> getApplicationJars() {
@@ -52,4 +59,18 @@ public class AugmentationContext {
     public String getApplicationName() {
         return applicationName;
     }
+    
+    /**
+     * Threads used to index JARs in parallel.
+     */
+    public int getIndexThreads() {
+        return indexThreads;
+    }
+    
+    /**
+     * Prebuilt Jandex index per JAR (several JARs may share one index).
+     */
+    public Map<Path, Path> getJarIndexes() {
+        return jarIndexes;
+    }
 }
@@ -1,16 +1,39 @@
 package io.quarkus.bazel.discovery;
 
 import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
+import org.jboss.jandex.FieldInfo;
 import org.jboss.jandex.IndexView;
+import org.jboss.jandex.MethodInfo;
 
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Discovers CDI beans from annotations.
+ *
+ * One pass over the known classes reads each class's annotation table
+ * once and resolves, together:
+ * - scopes, declared directly, through stereotypes (including stereotypes
+ *   declared on stereotypes) or inherited from a superclass
+ * - qualifiers: annotations whose type is annotated with @Qualifier
+ * - @Produces methods and fields
+ * - @Inject fields, including those of superclasses
+ * - lifecycle callbacks, @Inject initializer methods and @Inject
+ *   constructors, including those of superclasses (recorded only, so
+ *   build-time wiring can skip such beans)
+ *
+ * Annotation types are looked up in the index once each and cached.
  */
 public class BeanDiscovery {
     
@@ -20,59 +43,356 @@ public class BeanDiscovery {
     private static final DotName DEPENDENT = DotName.createSimple("jakarta.enterprise.context.Dependent");
     private static final DotName SINGLETON = DotName.createSimple("jakarta.inject.Singleton");
     
-    public static List<BeanInfo> discover(IndexView index) {
+    private static final DotName STEREOTYPE = DotName.createSimple("jakarta.enterprise.inject.Stereotype");
+    private static final DotName QUALIFIER = DotName.createSimple("jakarta.inject.Qualifier");
+    private static final DotName INHERITED = DotName.createSimple("java.lang.annotation.Inherited");
+    private static final DotName PRODUCES = DotName.createSimple("jakarta.enterprise.inject.Produces");
+    private static final DotName INJECT = DotName.createSimple("jakarta.inject.Inject");
+    private static final DotName POST_CONSTRUCT = DotName.createSimple("jakarta.annotation.PostConstruct");
+    private static final DotName PRE_DESTROY = DotName.createSimple("jakarta.annotation.PreDestroy");
+    private static final DotName OBJECT = DotName.createSimple("java.lang.Object");
+    
+    private static final Map<DotName, String> SCOPES = new HashMap<>();
+    static {
+        SCOPES.put(APPLICATION_SCOPED, "ApplicationScoped");
+        SCOPES.put(REQUEST_SCOPED, "RequestScoped");
+        SCOPES.put(SESSION_SCOPED, "SessionScoped");
+        SCOPES.put(DEPENDENT, "Dependent");
+        SCOPES.put(SINGLETON, "Singleton");
+    }
+    
+    // Qualifiers from the CDI API, which is often not part of the index
+    private static final Set<DotName> BUILTIN_QUALIFIERS = new HashSet<>();
+    static {
+        BUILTIN_QUALIFIERS.add(DotName.createSimple("jakarta.inject.Named"));
+        BUILTIN_QUALIFIERS.add(DotName.createSimple("jakarta.enterprise.inject.Default"));
+        BUILTIN_QUALIFIERS.add(DotName.createSimple("jakarta.enterprise.inject.Any"));
+    }
+    
+    public static BeanRegistry discover(IndexView index) {
+        Resolver resolver = new Resolver(index);
         List<BeanInfo> beans = new ArrayList<>();
         
-        discoverBeansWithScope(index, APPLICATION_SCOPED, "ApplicationScoped", beans);
-        discoverBeansWithScope(index, REQUEST_SCOPED, "RequestScoped", beans);
-        discoverBeansWithScope(index, SESSION_SCOPED, "SessionScoped", beans);
-        discoverBeansWithScope(index, DEPENDENT, "Dependent", beans);
-        discoverBeansWithScope(index, SINGLETON, "Singleton", beans);
+        for (ClassInfo classInfo : index.getKnownClasses()) {
+            try {
+                discoverClass(classInfo, resolver, beans);
+            } catch (Exception e) {
+                System.err.println("Warning: Failed to discover beans in " + classInfo.name() + ": " + e.getMessage());
+            }
+        }
         
-        return beans;
+        // Known class order depends on the index; keep the output stable
+        beans.sort(Comparator.comparing(BeanInfo::getClassName)
+            .thenComparing(BeanInfo::getKind)
+            .thenComparing(bean -> bean.getProducerMember() != null ? bean.getProducerMember() : ""));
+        return new BeanRegistry(beans);
     }
     
-    private static void discoverBeansWithScope(
-            IndexView index,
-            DotName scopeAnnotation,
-            String scopeName,
-            List<BeanInfo> beans) {
-        
-        try {
-            Collection<AnnotationInstance> annotations = index.getAnnotations(scopeAnnotation);
-            
-            for (AnnotationInstance annotation : annotations) {
-                if (annotation.target().kind() == org.jboss.jandex.AnnotationTarget.Kind.CLASS) {
-                    ClassInfo classInfo = annotation.target().asClass();
-                    BeanInfo bean = extractBeanInfo(classInfo, scopeName);
-                    if (bean != null) {
-                        beans.add(bean);
+    private static void discoverClass(ClassInfo classInfo, Resolver resolver, List<BeanInfo> beans) {
+        if (classInfo.isInterface() || classInfo.isAnnotation()) {
+            return;
+        }
+        
+        List<AnnotationInstance> classAnnotations = new ArrayList<>();
+        List<AnnotationTarget> producers = new ArrayList<>();
+        boolean hasInjection = false;
+        
+        for (AnnotationInstance annotation : classInfo.annotations()) {
+            AnnotationTarget target = annotation.target();
+            if (target == null) {
+                continue;
+            }
+            switch (target.kind()) {
+                case CLASS:
+                    classAnnotations.add(annotation);
+                    break;
+                case METHOD:
+                case FIELD:
+                    if (annotation.name().equals(PRODUCES)) {
+                        producers.add(target);
+                    } else if (annotation.name().equals(INJECT) && target.kind() == AnnotationTarget.Kind.FIELD) {
+                        hasInjection = true;
                     }
-                }
+                    break;
+                default:
+                    break;
             }
-        } catch (Exception e) {
-            System.err.println("Warning: Failed to discover beans with scope " + scopeName + ": " + e.getMessage());
+        }
+        
+        List<String> stereotypes = new ArrayList<>();
+        String scope = resolver.scopeOf(classAnnotations, stereotypes);
+        if (scope == null) {
+            scope = resolver.inheritedScope(classInfo.superName());
+        }
+        if (scope == null && (!producers.isEmpty() || hasInjection)) {
+            // Like Quarkus: producers or injection make a class a @Dependent bean
+            scope = SCOPES.get(DEPENDENT);
+        }
+        if (scope == null || classInfo.isAbstract()) {
+            return;
+        }
+        
+        String className = classInfo.name().toString();
+        beans.add(new BeanInfo(
+            BeanInfo.Kind.CLASS,
+            className,
+            null,
+            resolver.typesOf(classInfo),
+            scope,
+            resolver.qualifiersOf(classAnnotations),
+            stereotypes,
+            resolver.injectionPointsOf(classInfo),
+            resolver.lifecycleMembersOf(classInfo),
+            isInstantiable(classInfo)
+        ));
+        
+        for (AnnotationTarget producer : producers) {
+            beans.add(producerBean(className, producer, resolver));
         }
     }
     
-    private static BeanInfo extractBeanInfo(ClassInfo classInfo, String scope) {
-        try {
-            String className = classInfo.name().toString();
-            List<String> qualifiers = extractQualifiers(classInfo);
-            
-            return new BeanInfo(className, scope, qualifiers);
-        } catch (Exception e) {
-            System.err.println("Warning: Failed to extract bean info: " + e.getMessage());
-            return null;
+    private static BeanInfo producerBean(String className, AnnotationTarget producer, Resolver resolver) {
+        boolean method = producer.kind() == AnnotationTarget.Kind.METHOD;
+        List<AnnotationInstance> annotations = method
+            ? producer.asMethod().declaredAnnotations()
+            : producer.asField().declaredAnnotations();
+        String member = method ? producer.asMethod().name() : producer.asField().name();
+        String type = method
+            ? producer.asMethod().returnType().name().toString()
+            : producer.asField().type().name().toString();
+        
+        List<String> stereotypes = new ArrayList<>();
+        String scope = resolver.scopeOf(annotations, stereotypes);
+        
+        List<String> types = new ArrayList<>();
+        types.add(type);
+        return new BeanInfo(
+            method ? BeanInfo.Kind.PRODUCER_METHOD : BeanInfo.Kind.PRODUCER_FIELD,
+            className,
+            member,
+            types,
+            scope != null ? scope : SCOPES.get(DEPENDENT),
+            resolver.qualifiersOf(annotations),
+            stereotypes,
+            new ArrayList<>(),
+            new ArrayList<>(),
+            false
+        );
+    }
+    
+    private static boolean isInstantiable(ClassInfo classInfo) {
+        if (Modifier.isPrivate(classInfo.flags())) {
+            return false;
+        }
+        for (MethodInfo method : classInfo.methods()) {
+            if (method.name().equals("<init>") && method.parametersCount() == 0) {
+                return !Modifier.isPrivate(method.flags());
+            }
         }
+        return false;
     }
     
-    private static List<String> extractQualifiers(ClassInfo classInfo) {
-        List<String> qualifiers = new ArrayList<>();
+    /**
+     * Per-discovery lookups of annotation types and superclasses.
+     */
+    private static final class Resolver {
         
-        // For now, just return empty list
-        // Full implementation would scan for @Qualifier annotations
+        private final IndexView index;
+        private final Map<DotName, Boolean> qualifiers = new HashMap<>();
+        private final Map<DotName, ClassInfo> stereotypes = new HashMap<>();
+        private final Map<DotName, String> inheritedScopes = new HashMap<>();
+        
+        Resolver(IndexView index) {
+            this.index = index;
+        }
+        
+        /**
+         * Scope from the annotations, directly or through stereotypes;
+         * collects the stereotypes met on the way.
+         */
+        String scopeOf(Collection<AnnotationInstance> annotations, List<String> foundStereotypes) {
+            String scope = null;
+            for (AnnotationInstance annotation : annotations) {
+                String declared = SCOPES.get(annotation.name());
+                if (declared != null) {
+                    // A declared scope wins over stereotype scopes
+                    return declared;
+                }
+            }
+            for (AnnotationInstance annotation : annotations) {
+                String fromStereotype = stereotypeScope(annotation.name(), foundStereotypes, new HashSet<>());
+                if (scope == null) {
+                    scope = fromStereotype;
+                }
+            }
+            return scope;
+        }
         
-        return qualifiers;
+        private String stereotypeScope(DotName name, List<String> foundStereotypes, Set<DotName> visiting) {
+            ClassInfo stereotype = stereotype(name);
+            if (stereotype == null || !visiting.add(name)) {
+                return null;
+            }
+            if (!foundStereotypes.contains(name.toString())) {
+                foundStereotypes.add(name.toString());
+            }
+            String scope = null;
+            for (AnnotationInstance meta : stereotype.declaredAnnotations()) {
+                String declared = SCOPES.get(meta.name());
+                String nested = declared != null ? declared : stereotypeScope(meta.name(), foundStereotypes, visiting);
+                if (scope == null) {
+                    scope = nested;
+                }
+            }
+            return scope;
+        }
+        
+        private ClassInfo stereotype(DotName name) {
+            if (SCOPES.containsKey(name)) {
+                return null;
+            }
+            return stereotypes.computeIfAbsent(name, n -> {
+                ClassInfo annotationClass = index.getClassByName(n);
+                return annotationClass != null && annotationClass.hasDeclaredAnnotation(STEREOTYPE) ? annotationClass : null;
+            });
+        }
+        
+        /**
+         * Scope a class inherits from its superclasses: scopes are @Inherited,
+         * stereotypes only when annotated @Inherited.
+         */
+        String inheritedScope(DotName superName) {
+            if (superName == null || superName.equals(OBJECT)) {
+                return null;
+            }
+            if (inheritedScopes.containsKey(superName)) {
+                return inheritedScopes.get(superName);
+            }
+            String scope = null;
+            ClassInfo superClass = index.getClassByName(superName);
+            if (superClass != null) {
+                List<AnnotationInstance> inheritable = new ArrayList<>();
+                for (AnnotationInstance annotation : superClass.declaredAnnotations()) {
+                    ClassInfo stereotype = stereotype(annotation.name());
+                    if (SCOPES.containsKey(annotation.name())
+                            || (stereotype != null && stereotype.hasDeclaredAnnotation(INHERITED))) {
+                        inheritable.add(annotation);
+                    }
+                }
+                scope = scopeOf(inheritable, new ArrayList<>());
+                if (scope == null) {
+                    scope = inheritedScope(superClass.superName());
+                }
+            }
+            inheritedScopes.put(superName, scope);
+            return scope;
+        }
+        
+        List<String> qualifiersOf(Collection<AnnotationInstance> annotations) {
+            List<String> result = new ArrayList<>();
+            for (AnnotationInstance annotation : annotations) {
+                if (isQualifier(annotation.name())) {
+                    result.add(annotation.name().toString());
+                }
+            }
+            return result;
+        }
+        
+        private boolean isQualifier(DotName name) {
+            if (BUILTIN_QUALIFIERS.contains(name)) {
+                return true;
+            }
+            return qualifiers.computeIfAbsent(name, n -> {
+                ClassInfo annotationClass = index.getClassByName(n);
+                return annotationClass != null && annotationClass.hasDeclaredAnnotation(QUALIFIER);
+            });
+        }
+        
+        /**
+         * The class, its superclasses and all implemented interfaces known
+         * to the index, most specific first.
+         */
+        List<String> typesOf(ClassInfo classInfo) {
+            Set<String> types = new LinkedHashSet<>();
+            List<DotName> interfaces = new ArrayList<>();
+            ClassInfo current = classInfo;
+            while (current != null) {
+                types.add(current.name().toString());
+                interfaces.addAll(current.interfaceNames());
+                DotName superName = current.superName();
+                current = superName != null && !superName.equals(OBJECT) ? index.getClassByName(superName) : null;
+            }
+            while (!interfaces.isEmpty()) {
+                DotName name = interfaces.remove(0);
+                if (types.add(name.toString())) {
+                    ClassInfo interfaceInfo = index.getClassByName(name);
+                    if (interfaceInfo != null) {
+                        interfaces.addAll(interfaceInfo.interfaceNames());
+                    }
+                }
+            }
+            return new ArrayList<>(types);
+        }
+        
+        /**
+         * @Inject fields of the class and its superclasses, superclass fields first.
+         */
+        List<InjectionPointInfo> injectionPointsOf(ClassInfo classInfo) {
+            List<InjectionPointInfo> injectionPoints = new ArrayList<>();
+            for (ClassInfo declaring : hierarchyOf(classInfo)) {
+                for (FieldInfo field : declaring.fields()) {
+                    if (!field.hasAnnotation(INJECT) || Modifier.isStatic(field.flags())) {
+                        continue;
+                    }
+                    injectionPoints.add(new InjectionPointInfo(
+                        declaring.name().toString(),
+                        field.name(),
+                        field.type().name().toString(),
+                        qualifiersOf(field.declaredAnnotations()),
+                        Modifier.isPrivate(field.flags())
+                    ));
+                }
+            }
+            return injectionPoints;
+        }
+        
+        /**
+         * @PostConstruct/@PreDestroy methods, @Inject initializer methods and
+         * @Inject constructors of the class and its superclasses.
+         */
+        List<String> lifecycleMembersOf(ClassInfo classInfo) {
+            List<String> members = new ArrayList<>();
+            for (ClassInfo declaring : hierarchyOf(classInfo)) {
+                for (MethodInfo method : declaring.methods()) {
+                    String name = declaring.name() + "." + method.name() + "()";
+                    if (method.hasDeclaredAnnotation(POST_CONSTRUCT)) {
+                        members.add("@PostConstruct " + name);
+                    }
+                    if (method.hasDeclaredAnnotation(PRE_DESTROY)) {
+                        members.add("@PreDestroy " + name);
+                    }
+                    if (method.hasDeclaredAnnotation(INJECT)) {
+                        members.add(method.name().equals("<init>")
+                            ? "@Inject constructor of " + declaring.name()
+                            : "@Inject initializer " + name);
+                    }
+                }
+            }
+            return members;
+        }
+        
+        /**
+         * The class and its superclasses known to the index, superclasses first.
+         */
+        private List<ClassInfo> hierarchyOf(ClassInfo classInfo) {
+            List<ClassInfo> hierarchy = new ArrayList<>();
+            ClassInfo current = classInfo;
+            while (current != null) {
+                hierarchy.add(0, current);
+                DotName superName = current.superName();
+                current = superName != null && !superName.equals(OBJECT) ? index.getClassByName(superName) : null;
+            }
+            return hierarchy;
+        }
     }
 }
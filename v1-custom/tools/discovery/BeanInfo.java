@@ -6,20 +6,78 @@ import java.util.List;
  * Information about a discovered CDI bean.
  */
 public class BeanInfo {
+    
+    public enum Kind {
+        CLASS,
+        PRODUCER_METHOD,
+        PRODUCER_FIELD
+    }
+    
+    private final Kind kind;
     private final String className;
+    private final String producerMember;
+    private final List<String> types;
     private final String scope;
     private final List<String> qualifiers;
+    private final List<String> stereotypes;
+    private final List<InjectionPointInfo> injectionPoints;
+    private final List<String> lifecycleMembers;
+    private final boolean instantiable;
     
-    public BeanInfo(String className, String scope, List<String> qualifiers) {
+    /**
+     * @param className bean class, or the declaring class of a producer
+     * @param producerMember producer method or field name, null for class beans
+     * @param types bean types (class and its supertypes, or the produced type)
+     * @param lifecycleMembers @PostConstruct/@PreDestroy callbacks, @Inject
+     *        initializer methods and @Inject constructors, for diagnostics
+     * @param instantiable non-private class with a non-private no-args constructor
+     */
+    public BeanInfo(
+            Kind kind,
+            String className,
+            String producerMember,
+            List<String> types,
+            String scope,
+            List<String> qualifiers,
+            List<String> stereotypes,
+            List<InjectionPointInfo> injectionPoints,
+            List<String> lifecycleMembers,
+            boolean instantiable) {
+        this.kind = kind;
         this.className = className;
+        this.producerMember = producerMember;
+        this.types = types;
         this.scope = scope;
         this.qualifiers = qualifiers;
+        this.stereotypes = stereotypes;
+        this.injectionPoints = injectionPoints;
+        this.lifecycleMembers = lifecycleMembers;
+        this.instantiable = instantiable;
+    }
+    
+    public Kind getKind() {
+        return kind;
     }
     
     public String getClassName() {
         return className;
     }
     
+    public String getProducerMember() {
+        return producerMember;
+    }
+    
+    /**
+     * The bean class for class beans, the produced type for producers.
+     */
+    public String getBeanType() {
+        return types.get(0);
+    }
+    
+    public List<String> getTypes() {
+        return types;
+    }
+    
     public String getScope() {
         return scope;
     }
@@ -27,4 +85,25 @@ public class BeanInfo {
     public List<String> getQualifiers() {
         return qualifiers;
     }
+    
+    public List<String> getStereotypes() {
+        return stereotypes;
+    }
+    
+    public List<InjectionPointInfo> getInjectionPoints() {
+        return injectionPoints;
+    }
+    
+    /**
+     * Members of the class and its superclasses that a container calls
+     * besides the no-args constructor and @Inject fields, e.g.
+     * "@PostConstruct com.example.Foo.init()".
+     */
+    public List<String> getLifecycleMembers() {
+        return lifecycleMembers;
+    }
+    
+    public boolean isInstantiable() {
+        return instantiable;
+    }
 }
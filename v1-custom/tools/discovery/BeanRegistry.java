@@ -0,0 +1,76 @@
+package io.quarkus.bazel.discovery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All beans found by BeanDiscovery, looked up by bean type.
+ *
+ * Holds everything generation needs, so later steps never go back to the
+ * Jandex index. Qualifiers are matched by annotation name only.
+ */
+public class BeanRegistry {
+    
+    private static final String NAMED = "jakarta.inject.Named";
+    private static final String DEFAULT = "jakarta.enterprise.inject.Default";
+    private static final String ANY = "jakarta.enterprise.inject.Any";
+    
+    private final List<BeanInfo> beans;
+    private final Map<String, List<BeanInfo>> beansByType = new HashMap<>();
+    
+    public BeanRegistry(List<BeanInfo> beans) {
+        this.beans = Collections.unmodifiableList(beans);
+        for (BeanInfo bean : beans) {
+            for (String type : bean.getTypes()) {
+                beansByType.computeIfAbsent(type, t -> new ArrayList<>()).add(bean);
+            }
+        }
+    }
+    
+    public List<BeanInfo> getBeans() {
+        return beans;
+    }
+    
+    public int size() {
+        return beans.size();
+    }
+    
+    public List<BeanInfo> getBeansOfType(String type) {
+        return beansByType.getOrDefault(type, Collections.emptyList());
+    }
+    
+    /**
+     * Beans assignable to an injection point of the given type and qualifiers.
+     * No qualifiers means @Default: beans with no qualifiers besides @Named
+     * and @Any.
+     */
+    public List<BeanInfo> resolve(String type, List<String> qualifiers) {
+        List<BeanInfo> matches = new ArrayList<>();
+        for (BeanInfo bean : getBeansOfType(type)) {
+            if (matches(bean, qualifiers)) {
+                matches.add(bean);
+            }
+        }
+        return matches;
+    }
+    
+    private static boolean matches(BeanInfo bean, List<String> required) {
+        if (required.isEmpty() || (required.size() == 1 && required.get(0).equals(DEFAULT))) {
+            for (String qualifier : bean.getQualifiers()) {
+                if (!qualifier.equals(NAMED) && !qualifier.equals(ANY) && !qualifier.equals(DEFAULT)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        for (String qualifier : required) {
+            if (!qualifier.equals(ANY) && !bean.getQualifiers().contains(qualifier)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
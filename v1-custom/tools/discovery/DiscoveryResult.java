@@ -8,10 +8,10 @@ import java.util.List;
  */
 public class DiscoveryResult {
     private final List<RouteInfo> routes;
-    private final List<BeanInfo> beans;
+    private final BeanRegistry beans;
     private final IndexView index;
     
-    public DiscoveryResult(List<RouteInfo> routes, List<BeanInfo> beans, IndexView index) {
+    public DiscoveryResult(List<RouteInfo> routes, BeanRegistry beans, IndexView index) {
         this.routes = routes;
         this.beans = beans;
         this.index = index;
@@ -22,6 +22,10 @@ public class DiscoveryResult {
     }
     
     public List<BeanInfo> getBeans() {
+        return beans.getBeans();
+    }
+    
+    public BeanRegistry getBeanRegistry() {
         return beans;
     }
     
@@ -0,0 +1,47 @@
+package io.quarkus.bazel.discovery;
+
+import java.util.List;
+
+/**
+ * An @Inject field of a bean class (or one of its superclasses).
+ */
+public class InjectionPointInfo {
+    private final String declaringClass;
+    private final String fieldName;
+    private final String typeName;
+    private final List<String> qualifiers;
+    private final boolean privateField;
+    
+    public InjectionPointInfo(
+            String declaringClass,
+            String fieldName,
+            String typeName,
+            List<String> qualifiers,
+            boolean privateField) {
+        this.declaringClass = declaringClass;
+        this.fieldName = fieldName;
+        this.typeName = typeName;
+        this.qualifiers = qualifiers;
+        this.privateField = privateField;
+    }
+    
+    public String getDeclaringClass() {
+        return declaringClass;
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    public String getTypeName() {
+        return typeName;
+    }
+    
+    public List<String> getQualifiers() {
+        return qualifiers;
+    }
+    
+    public boolean isPrivateField() {
+        return privateField;
+    }
+}
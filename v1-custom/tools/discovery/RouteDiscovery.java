@@ -21,7 +21,7 @@ public class RouteDiscovery {
     
     public static DiscoveryResult discover(IndexView index) {
         List<RouteInfo> routes = discoverRoutes(index);
-        List<BeanInfo> beans = BeanDiscovery.discover(index);
+        BeanRegistry beans = BeanDiscovery.discover(index);
         return new DiscoveryResult(routes, beans, index);
     }
     
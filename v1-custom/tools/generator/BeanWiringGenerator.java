@@ -0,0 +1,284 @@
+package io.quarkus.bazel.generator;
+
+import io.quarkus.bazel.discovery.BeanInfo;
+import io.quarkus.bazel.discovery.BeanRegistry;
+import io.quarkus.bazel.discovery.InjectionPointInfo;
+import io.quarkus.gizmo.ClassCreator;
+import io.quarkus.gizmo.FieldDescriptor;
+import io.quarkus.gizmo.MethodCreator;
+import io.quarkus.gizmo.MethodDescriptor;
+import io.quarkus.gizmo.ResultHandle;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates build-time wiring for @ApplicationScoped and @Singleton beans.
+ *
+ * For every wired bean a factory class is generated next to the bean
+ * (same package, so package-private constructors and fields work):
+ *
+ *   public static Object create()                  // new Bean()
+ *   public static void inject(Object bean, Object[] deps)
+ *
+ * io.quarkus.runner.GeneratedBeans.start() creates all beans, then injects
+ * them into each other (two phases, so cycles need no proxies), with no
+ * reflection and no scanning at runtime. Beans are eager and injected
+ * directly, without client proxies.
+ *
+ * Only application beans are wired (library beans keep their own lifecycle).
+ * A bean is wired only when it is instantiable, has no lifecycle callbacks,
+ * @Inject initializer methods or @Inject constructor (nothing here would
+ * call them) and each @Inject field is non-private, declared in the bean's
+ * package and resolves to exactly one wired class bean (producers are not
+ * wired); other beans are skipped with a warning.
+ */
+public class BeanWiringGenerator {
+    
+    public static final String BEANS_CLASS = "io.quarkus.runner.GeneratedBeans";
+    
+    private static final String FACTORY_SUFFIX = "_Factory";
+    
+    /**
+     * The application beans that can be wired at build time, in registry order.
+     */
+    public static List<BeanInfo> wiredBeans(BeanRegistry registry, Set<String> applicationClasses) {
+        Map<String, BeanInfo> candidates = new LinkedHashMap<>();
+        Map<String, String> skipped = new LinkedHashMap<>();
+        for (BeanInfo bean : registry.getBeans()) {
+            if (bean.getKind() != BeanInfo.Kind.CLASS || !applicationClasses.contains(bean.getClassName())) {
+                continue;
+            }
+            if (!bean.getScope().equals("ApplicationScoped") && !bean.getScope().equals("Singleton")) {
+                continue;
+            }
+            String reason = unsupported(bean);
+            if (reason == null) {
+                candidates.put(bean.getClassName(), bean);
+            } else {
+                skipped.put(bean.getClassName(), reason);
+            }
+        }
+        
+        // Drop beans with dependencies that are not wired, until nothing changes
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BeanInfo bean : new ArrayList<>(candidates.values())) {
+                for (InjectionPointInfo injectionPoint : bean.getInjectionPoints()) {
+                    List<BeanInfo> resolved = registry.resolve(injectionPoint.getTypeName(), injectionPoint.getQualifiers());
+                    BeanInfo dependency = classBean(resolved);
+                    if (dependency == null || !candidates.containsKey(dependency.getClassName())) {
+                        candidates.remove(bean.getClassName());
+                        skipped.put(bean.getClassName(), describe(injectionPoint, resolved));
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        
+        for (Map.Entry<String, String> entry : skipped.entrySet()) {
+            System.err.println("Warning: Bean " + entry.getKey() + " is not wired at build time: " + entry.getValue());
+        }
+        return new ArrayList<>(candidates.values());
+    }
+    
+    public static List<GeneratedClass> generate(BeanRegistry registry, List<BeanInfo> wired) {
+        Map<String, byte[]> classOutput = new LinkedHashMap<>();
+        
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < wired.size(); i++) {
+            indexes.put(wired.get(i).getClassName(), i);
+        }
+        
+        for (BeanInfo bean : wired) {
+            generateFactory(bean, classOutput);
+        }
+        generateBeans(registry, wired, indexes, classOutput);
+        
+        List<GeneratedClass> generated = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : classOutput.entrySet()) {
+            String name = entry.getKey().endsWith(".class") ? entry.getKey() : entry.getKey() + ".class";
+            generated.add(new GeneratedClass(name, entry.getValue()));
+        }
+        return generated;
+    }
+    
+    private static String unsupported(BeanInfo bean) {
+        if (!bean.isInstantiable()) {
+            return "no accessible no-args constructor";
+        }
+        if (!bean.getLifecycleMembers().isEmpty()) {
+            return String.join(", ", bean.getLifecycleMembers()) + " would not be called";
+        }
+        String beanPackage = packageOf(bean.getClassName());
+        for (InjectionPointInfo injectionPoint : bean.getInjectionPoints()) {
+            if (injectionPoint.isPrivateField()) {
+                return "private @Inject field " + injectionPoint.getDeclaringClass() + "." + injectionPoint.getFieldName();
+            }
+            if (!packageOf(injectionPoint.getDeclaringClass()).equals(beanPackage)) {
+                return "@Inject field " + injectionPoint.getDeclaringClass() + "." + injectionPoint.getFieldName()
+                    + " is declared in another package";
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * The single resolved bean when it is a class bean; producer beans share
+     * the declaring bean's class name, so they never count as wired.
+     */
+    private static BeanInfo classBean(List<BeanInfo> resolved) {
+        if (resolved.size() != 1 || resolved.get(0).getKind() != BeanInfo.Kind.CLASS) {
+            return null;
+        }
+        return resolved.get(0);
+    }
+    
+    private static String describe(InjectionPointInfo injectionPoint, List<BeanInfo> resolved) {
+        String field = injectionPoint.getDeclaringClass() + "." + injectionPoint.getFieldName();
+        int candidates = resolved.size();
+        if (candidates == 0) {
+            return "unsatisfied dependency " + injectionPoint.getTypeName() + " for " + field;
+        }
+        if (candidates > 1) {
+            return "ambiguous dependency " + injectionPoint.getTypeName() + " for " + field;
+        }
+        if (resolved.get(0).getKind() != BeanInfo.Kind.CLASS) {
+            return "dependency " + injectionPoint.getTypeName() + " for " + field + " comes from producer "
+                + resolved.get(0).getClassName() + "." + resolved.get(0).getProducerMember();
+        }
+        return "dependency " + injectionPoint.getTypeName() + " for " + field + " is not wired";
+    }
+    
+    private static void generateFactory(BeanInfo bean, Map<String, byte[]> classOutput) {
+        String beanClass = bean.getClassName();
+        ClassCreator creator = ClassCreator.builder()
+            .classOutput(classOutput::put)
+            .className(factoryName(beanClass))
+            .build();
+        
+        MethodCreator create = creator.getMethodCreator("create", Object.class)
+            .setModifiers(Modifier.PUBLIC | Modifier.STATIC);
+        create.returnValue(create.newInstance(MethodDescriptor.ofConstructor(beanClass)));
+        
+        MethodCreator inject = creator.getMethodCreator("inject", void.class, Object.class, Object[].class)
+            .setModifiers(Modifier.PUBLIC | Modifier.STATIC);
+        ResultHandle instance = inject.checkCast(inject.getMethodParam(0), beanClass);
+        ResultHandle dependencies = inject.getMethodParam(1);
+        List<InjectionPointInfo> injectionPoints = bean.getInjectionPoints();
+        for (int i = 0; i < injectionPoints.size(); i++) {
+            InjectionPointInfo injectionPoint = injectionPoints.get(i);
+            ResultHandle dependency = inject.checkCast(inject.readArrayValue(dependencies, i), injectionPoint.getTypeName());
+            inject.writeInstanceField(
+                FieldDescriptor.of(injectionPoint.getDeclaringClass(), injectionPoint.getFieldName(), injectionPoint.getTypeName()),
+                instance,
+                dependency
+            );
+        }
+        inject.returnValue(null);
+        
+        creator.close();
+    }
+    
+    /**
+     * GeneratedBeans.start() creates and wires all beans and registers each
+     * under its bean class and under every type no other wired bean has;
+     * GeneratedBeans.get(type) looks them up by class name.
+     */
+    private static void generateBeans(
+            BeanRegistry registry,
+            List<BeanInfo> wired,
+            Map<String, Integer> indexes,
+            Map<String, byte[]> classOutput) {
+        
+        ClassCreator creator = ClassCreator.builder()
+            .classOutput(classOutput::put)
+            .className(BEANS_CLASS)
+            .build();
+        
+        FieldDescriptor beansField = creator.getFieldCreator("beans", Map.class)
+            .setModifiers(Modifier.PRIVATE | Modifier.STATIC)
+            .getFieldDescriptor();
+        
+        MethodCreator start = creator.getMethodCreator("start", void.class)
+            .setModifiers(Modifier.PUBLIC | Modifier.STATIC);
+        
+        ResultHandle instances = start.newArray(Object.class, wired.size());
+        for (int i = 0; i < wired.size(); i++) {
+            ResultHandle instance = start.invokeStaticMethod(
+                MethodDescriptor.ofMethod(factoryName(wired.get(i).getClassName()), "create", Object.class)
+            );
+            start.writeArrayValue(instances, i, instance);
+        }
+        
+        for (int i = 0; i < wired.size(); i++) {
+            List<InjectionPointInfo> injectionPoints = wired.get(i).getInjectionPoints();
+            if (injectionPoints.isEmpty()) {
+                continue;
+            }
+            ResultHandle dependencies = start.newArray(Object.class, injectionPoints.size());
+            for (int j = 0; j < injectionPoints.size(); j++) {
+                InjectionPointInfo injectionPoint = injectionPoints.get(j);
+                BeanInfo dependency = classBean(registry.resolve(injectionPoint.getTypeName(), injectionPoint.getQualifiers()));
+                start.writeArrayValue(dependencies, j, start.readArrayValue(instances, indexes.get(dependency.getClassName())));
+            }
+            start.invokeStaticMethod(
+                MethodDescriptor.ofMethod(factoryName(wired.get(i).getClassName()), "inject", void.class, Object.class, Object[].class),
+                start.readArrayValue(instances, i),
+                dependencies
+            );
+        }
+        
+        ResultHandle beans = start.newInstance(MethodDescriptor.ofConstructor(HashMap.class));
+        MethodDescriptor put = MethodDescriptor.ofMethod(Map.class, "put", Object.class, Object.class, Object.class);
+        for (Map.Entry<String, Integer> entry : typeIndex(wired).entrySet()) {
+            start.invokeInterfaceMethod(put, beans, start.load(entry.getKey()), start.readArrayValue(instances, entry.getValue()));
+        }
+        start.writeStaticField(beansField, beans);
+        start.returnValue(null);
+        
+        MethodCreator get = creator.getMethodCreator("get", Object.class, String.class)
+            .setModifiers(Modifier.PUBLIC | Modifier.STATIC);
+        get.returnValue(get.invokeInterfaceMethod(
+            MethodDescriptor.ofMethod(Map.class, "get", Object.class, Object.class),
+            get.readStaticField(beansField),
+            get.getMethodParam(0)
+        ));
+        
+        creator.close();
+    }
+    
+    private static Map<String, Integer> typeIndex(List<BeanInfo> wired) {
+        Map<String, Integer> byType = new LinkedHashMap<>();
+        Set<String> ambiguous = new LinkedHashSet<>();
+        for (int i = 0; i < wired.size(); i++) {
+            for (String type : wired.get(i).getTypes()) {
+                if (byType.putIfAbsent(type, i) != null) {
+                    ambiguous.add(type);
+                }
+            }
+        }
+        byType.keySet().removeAll(ambiguous);
+        for (int i = 0; i < wired.size(); i++) {
+            byType.put(wired.get(i).getClassName(), i);
+        }
+        return byType;
+    }
+    
+    static String factoryName(String beanClass) {
+        return beanClass + FACTORY_SUFFIX;
+    }
+    
+    private static String packageOf(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot < 0 ? "" : className.substring(0, dot);
+    }
+}
@@ -1,7 +1,9 @@
 package io.quarkus.bazel.generator;
 
+import io.quarkus.bazel.discovery.BeanInfo;
 import io.quarkus.bazel.discovery.DiscoveryResult;
 import io.quarkus.bazel.discovery.RouteInfo;
+import io.quarkus.gizmo.BranchResult;
 import io.quarkus.gizmo.ClassCreator;
 import io.quarkus.gizmo.FieldDescriptor;
 import io.quarkus.gizmo.MethodCreator;
@@ -14,10 +16,17 @@ import java.util.Map;
 
 /**
  * Generates main class using Gizmo.
+ *
+ * After the banner, main() starts the build-time wired beans
+ * (BeanWiringGenerator) and, when one of them implements
+ * io.quarkus.runtime.QuarkusApplication, calls its run(args) and exits
+ * with its result when that is non-zero.
  */
 public class MainClassGenerator {
     
-    public static GeneratedClass generate(DiscoveryResult discovery) throws Exception {
+    private static final String QUARKUS_APPLICATION = "io.quarkus.runtime.QuarkusApplication";
+    
+    public static GeneratedClass generate(DiscoveryResult discovery, List<BeanInfo> wiredBeans) throws Exception {
         Map<String, byte[]> classOutput = new HashMap<>();
         
         ClassCreator creator = createClassCreator(classOutput);
@@ -25,6 +34,7 @@ public class MainClassGenerator {
         
         addQuarkusBanner(main);
         addRouteLogging(main, discovery.getRoutes());
+        startBeans(main, wiredBeans);
         
         main.returnValue(null);
         creator.close();
@@ -87,6 +97,34 @@ public class MainClassGenerator {
         println(main, systemOut, "");
     }
     
+    private static void startBeans(MethodCreator main, List<BeanInfo> wiredBeans) {
+        main.invokeStaticMethod(
+            MethodDescriptor.ofMethod(BeanWiringGenerator.BEANS_CLASS, "start", void.class)
+        );
+        
+        for (BeanInfo bean : wiredBeans) {
+            if (bean.getTypes().contains(QUARKUS_APPLICATION)) {
+                ResultHandle application = main.invokeStaticMethod(
+                    MethodDescriptor.ofMethod(BeanWiringGenerator.BEANS_CLASS, "get", Object.class, String.class),
+                    main.load(bean.getClassName())
+                );
+                ResultHandle exitCode = main.invokeInterfaceMethod(
+                    MethodDescriptor.ofMethod(QUARKUS_APPLICATION, "run", int.class, String[].class),
+                    main.checkCast(application, QUARKUS_APPLICATION),
+                    main.getMethodParam(0)
+                );
+                
+                // A non-zero exit code ends the JVM, like Quarkus.run()
+                BranchResult failed = main.ifNonZero(exitCode);
+                failed.trueBranch().invokeStaticMethod(
+                    MethodDescriptor.ofMethod(System.class, "exit", void.class, int.class),
+                    exitCode
+                );
+                return;
+            }
+        }
+    }
+    
     private static void println(MethodCreator main, ResultHandle systemOut, String message) {
         main.invokeVirtualMethod(
             MethodDescriptor.ofMethod(java.io.PrintStream.class, "println", void.class, String.class),
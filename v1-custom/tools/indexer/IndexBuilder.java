@@ -1,44 +1,162 @@
 package io.quarkus.bazel.indexer;
 
 import io.quarkus.bazel.augmentor.AugmentationContext;
+import org.jboss.jandex.CompositeIndex;
+import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.IndexView;
 import org.jboss.jandex.Indexer;
 
-import java.io.FileInputStream;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Builds Jandex index from JAR files.
+ *
+ * Every JAR gets its own Indexer on a bounded thread pool (one task per
+ * JAR, so inflating and parsing class files runs on all index threads);
+ * the per-JAR indexes are combined with CompositeIndex.
+ *
+ * JARs with a prebuilt index from jandex_library_aspect (--jar-indexes)
+ * are not scanned: the .idx is read instead. A target with several JARs
+ * has one index covering all of them, so it is read once.
+ *
+ * Other JARs use their embedded META-INF/jandex.idx when it is readable;
+ * only JARs without one are scanned, through ZipFile so that resources
+ * are never inflated.
  */
 public class IndexBuilder {
     
+    private static final String EMBEDDED_INDEX = "META-INF/jandex.idx";
+    
     public static IndexView createIndex(AugmentationContext context) throws Exception {
-        Indexer indexer = new Indexer();
+        List<Path> jars = new ArrayList<>(context.getApplicationJars());
+        jars.addAll(context.getRuntimeJars());
         
-        indexJars(context.getApplicationJars(), indexer);
-        indexJars(context.getRuntimeJars(), indexer);
+        int threads = Math.max(1, Math.min(context.getIndexThreads(), jars.size()));
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "jandex-indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
         
-        return indexer.complete();
+        try {
+            Map<Path, Path> jarIndexes = context.getJarIndexes();
+            Set<Path> readIndexes = new HashSet<>();
+            List<Future<IndexView>> futures = new ArrayList<>();
+            for (Path jar : jars) {
+                Path prebuilt = jarIndexes.get(jar);
+                if (prebuilt == null) {
+                    futures.add(executor.submit(() -> indexJar(jar)));
+                } else if (readIndexes.add(prebuilt)) {
+                    futures.add(executor.submit(() -> readIndex(prebuilt, jar)));
+                }
+            }
+            
+            // Collect in submission order so lookups stay deterministic
+            List<IndexView> indexes = new ArrayList<>();
+            for (Future<IndexView> future : futures) {
+                indexes.add(await(future));
+            }
+            return CompositeIndex.create(indexes);
+        } finally {
+            executor.shutdownNow();
+        }
     }
     
-    private static void indexJars(Iterable<Path> jars, Indexer indexer) throws Exception {
+    /**
+     * Names of the classes in the given JARs, read from the central
+     * directory only.
+     */
+    public static Set<String> classNames(List<Path> jars) throws IOException {
+        Set<String> classNames = new HashSet<>();
         for (Path jar : jars) {
-            indexJar(jar, indexer);
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.endsWith(".class") && !name.startsWith("META-INF/")) {
+                        classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+                    }
+                }
+            }
+        }
+        return classNames;
+    }
+    
+    private static IndexView await(Future<IndexView> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+    
+    private static IndexView readIndex(Path indexPath, Path jarPath) throws Exception {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(indexPath))) {
+            return new IndexReader(in).read();
+        } catch (IOException | RuntimeException e) {
+            // Unreadable or newer index format: scan the JAR instead
+            System.err.println("Warning: Cannot read " + indexPath + " (" + e.getMessage() + "), indexing " + jarPath);
+            return indexJar(jarPath);
         }
     }
     
-    private static void indexJar(Path jarPath, Indexer indexer) throws Exception {
-        try (FileInputStream fis = new FileInputStream(jarPath.toFile());
-             JarInputStream jis = new JarInputStream(fis)) {
+    private static IndexView indexJar(Path jarPath) throws Exception {
+        // ZipFile reads the central directory, so only the entries we open
+        // are ever inflated
+        try (ZipFile zip = new ZipFile(jarPath.toFile())) {
+            IndexView embedded = readEmbeddedIndex(zip, jarPath);
+            if (embedded != null) {
+                return embedded;
+            }
             
-            JarEntry entry;
-            while ((entry = jis.getNextJarEntry()) != null) {
-                if (entry.getName().endsWith(".class")) {
-                    indexer.index(jis);
+            Indexer indexer = new Indexer();
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        indexer.index(in);
+                    }
                 }
             }
+            return indexer.complete();
+        }
+    }
+    
+    /**
+     * Reads META-INF/jandex.idx shipped in the JAR (most Quarkus and SmallRye
+     * JARs have one), or returns null when absent or unreadable.
+     */
+    private static IndexView readEmbeddedIndex(ZipFile zip, Path jarPath) {
+        ZipEntry entry = zip.getEntry(EMBEDDED_INDEX);
+        if (entry == null) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(zip.getInputStream(entry))) {
+            return new IndexReader(in).read();
+        } catch (IOException | RuntimeException e) {
+            // UnsupportedVersion (newer Jandex) or a corrupt index
+            System.err.println("Warning: Ignoring " + EMBEDDED_INDEX + " in " + jarPath + " (" + e.getMessage() + ")");
+            return null;
         }
     }
 }
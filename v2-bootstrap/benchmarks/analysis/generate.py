@@ -0,0 +1,162 @@
+#!/usr/bin/env python3
+"""
+Generates the analysis-phase benchmark packages for the Quarkus rules.
+
+Layout (under --output, default: generated/ next to this script):
+
+    maven/BUILD.bazel        synthetic Maven graph: java_import libraries,
+                             runtime extensions and their -deployment modules
+    maven/repo/maven2/...    empty placeholder JARs in Maven repository
+                             layout (never read: the benchmark runs --nobuild)
+    apps_<N>/BUILD.bazel     N quarkus_application targets
+    apps_<N>/src/...         one placeholder source file per application
+    targets_<N>.txt          target patterns for --target_pattern_file
+
+Every generated target is tagged "manual" so `bazel build //...` of the
+repository never picks them up. The graph is derived from --seed only, so
+the same arguments always generate the same workspace.
+"""
+
+import argparse
+import os
+import random
+import shutil
+
+MAVEN_GROUP = "com.example.synthetic"
+
+
+def parse_args():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--output", default=os.path.join(os.path.dirname(os.path.abspath(__file__)), "generated"))
+    parser.add_argument("--apps", default="10,100,500", help="comma-separated application counts")
+    parser.add_argument("--libraries", type=int, default=2000, help="synthetic Maven libraries")
+    parser.add_argument("--deps-per-library", type=int, default=4, help="max direct deps of a library")
+    parser.add_argument("--extensions", type=int, default=60, help="synthetic Quarkus extensions")
+    parser.add_argument("--deps-per-extension", type=int, default=12, help="library deps of an extension")
+    parser.add_argument("--extensions-per-app", type=int, default=10)
+    parser.add_argument("--symlink-every", type=int, default=5,
+                        help="every n-th app sets symlink_libraries (0 = never)")
+    parser.add_argument("--variant-every", type=int, default=10,
+                        help="every n-th app declares a build variant (0 = never)")
+    parser.add_argument("--seed", type=int, default=42)
+    return parser.parse_args()
+
+
+def jar_path(artifact):
+    group_path = MAVEN_GROUP.replace(".", "/")
+    return "repo/maven2/%s/%s/1.0/processed_%s-1.0.jar" % (group_path, artifact, artifact)
+
+
+def write(path, content):
+    os.makedirs(os.path.dirname(path), exist_ok=True)
+    with open(path, "w") as out:
+        out.write(content)
+
+
+def java_import(name, artifact, deps):
+    lines = [
+        "java_import(",
+        "    name = \"%s\"," % name,
+        "    jars = [\"%s\"]," % jar_path(artifact),
+        "    tags = [\"manual\"],",
+    ]
+    if deps:
+        lines.append("    deps = [")
+        lines.extend("        \":%s\"," % dep for dep in deps)
+        lines.append("    ],")
+    lines.append(")")
+    return "\n".join(lines) + "\n"
+
+
+def generate_maven(output, args, rng):
+    """Writes the synthetic graph and returns the maven package label."""
+    package = os.path.join(output, "maven")
+    targets = []
+
+    for i in range(args.libraries):
+        count = min(i, rng.randint(0, args.deps_per_library))
+        deps = sorted(rng.sample(range(i), count)) if count else []
+        targets.append(("lib_%d" % i, "lib-%d" % i, ["lib_%d" % d for d in deps]))
+
+    for i in range(args.extensions):
+        deps = sorted(rng.sample(range(args.libraries), min(args.libraries, args.deps_per_extension)))
+        targets.append(("ext_%d" % i, "quarkus-ext-%d" % i, ["lib_%d" % d for d in deps]))
+        deployment_deps = ["ext_%d" % i] + ["lib_%d" % d for d in
+                                             sorted(rng.sample(range(args.libraries), 4))]
+        targets.append(("ext_%d_deployment" % i, "quarkus-ext-%d-deployment" % i, deployment_deps))
+
+    build = ['"""Synthetic Maven dependency graph (generated, do not edit)."""\n',
+             'load("@rules_java//java:defs.bzl", "java_import")\n',
+             'package(default_visibility = ["//visibility:public"])\n']
+    for name, artifact, deps in targets:
+        build.append(java_import(name, artifact, deps))
+        write(os.path.join(package, jar_path(artifact)), "")
+    write(os.path.join(package, "BUILD.bazel"), "\n".join(build))
+
+
+def generate_apps(output, label_prefix, count, args, rng):
+    package_name = "apps_%d" % count
+    package = os.path.join(output, package_name)
+    maven = label_prefix + "/maven"
+    build = ['"""%d synthetic Quarkus applications (generated, do not edit)."""\n' % count,
+             'load("//v2-bootstrap/rules:quarkus.bzl", "quarkus_application")\n']
+    labels = []
+
+    for i in range(count):
+        name = "app_%d" % i
+        extensions = sorted(rng.sample(range(args.extensions), min(args.extensions, args.extensions_per_app)))
+        deps = sorted(rng.sample(range(args.libraries), 3))
+        source = "src/%s/App%d.java" % (name, i)
+        write(os.path.join(package, source), "package app%d;\n\npublic class App%d {\n}\n" % (i, i))
+
+        lines = [
+            "quarkus_application(",
+            "    name = \"%s\"," % name,
+            "    srcs = [\"%s\"]," % source,
+            "    deps = [%s]," % ", ".join("\"%s:lib_%d\"" % (maven, d) for d in deps),
+            "    runtime_extensions = [",
+        ]
+        lines.extend("        \"%s:ext_%d\"," % (maven, e) for e in extensions)
+        lines.append("    ],")
+        lines.append("    deployment_extensions = [")
+        lines.extend("        \"%s:ext_%d_deployment\"," % (maven, e) for e in extensions)
+        lines.append("    ],")
+        lines.append("    build_properties = {\"quarkus.application.name\": \"%s\"}," % name)
+        if args.symlink_every and i % args.symlink_every == 0:
+            lines.append("    symlink_libraries = True,")
+        if args.variant_every and i % args.variant_every == 0:
+            lines.append("    variants = {\"lean\": {\"quarkus.arc.remove-unused-beans\": \"all\"}},")
+        lines.append("    tags = [\"manual\"],")
+        lines.append(")")
+        build.append("\n".join(lines) + "\n")
+        labels.append("%s/%s:%s" % (label_prefix, package_name, name))
+
+    write(os.path.join(package, "BUILD.bazel"), "\n".join(build))
+    write(os.path.join(output, "targets_%d.txt" % count), "\n".join(labels) + "\n")
+
+
+def main():
+    args = parse_args()
+    output = os.path.abspath(args.output)
+
+    workspace = output
+    while not os.path.exists(os.path.join(workspace, "MODULE.bazel")):
+        parent = os.path.dirname(workspace)
+        if parent == workspace:
+            raise SystemExit("--output must be inside the rules_quarkus workspace")
+        workspace = parent
+    label_prefix = "//" + os.path.relpath(output, workspace).replace(os.sep, "/")
+
+    if os.path.exists(output):
+        shutil.rmtree(output)
+    rng = random.Random(args.seed)
+    generate_maven(output, args, rng)
+    for count in [int(c) for c in args.apps.split(",") if c.strip()]:
+        generate_apps(output, label_prefix, count, args, random.Random("%d-%d" % (args.seed, count)))
+
+    print("Generated %s (%s apps, %d libraries, %d extensions)" % (
+        label_prefix, args.apps, args.libraries, args.extensions))
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# Analysis-phase scalability benchmark for the Quarkus rules.
+#
+# Generates the synthetic workspace (generate.py) and, for every app count,
+# runs `bazel build --nobuild` in a fresh Bazel server with --profile.
+# Reports per app count:
+#   - analysis phase wall time (from `bazel analyze-profile`)
+#   - configured targets
+#   - retained heap after the build (used-heap-size-after-gc)
+#
+# Usage:
+#   v2-bootstrap/benchmarks/analysis/run.sh [--apps 10,100,500] [--runs 3]
+#       [--output-base DIR] [generate.py options...]
+#
+# Results are printed as a table and written to results.tsv (one row per
+# run); compare the numbers before and after a rule change.
+
+set -euo pipefail
+
+SCRIPT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")" && pwd)"
+WORKSPACE="$(cd "$SCRIPT_DIR/../../.." && pwd)"
+GENERATED="$SCRIPT_DIR/generated"
+RESULTS="$SCRIPT_DIR/results.tsv"
+WORK="$(mktemp -d)"
+trap 'rm -rf "$WORK"' EXIT
+
+APPS="10,100,500"
+RUNS=3
+OUTPUT_BASE="${TMPDIR:-/tmp}/quarkus-analysis-benchmark"
+GENERATE_ARGS=()
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --apps) APPS="$2"; shift 2 ;;
+        --runs) RUNS="$2"; shift 2 ;;
+        --output-base) OUTPUT_BASE="$2"; shift 2 ;;
+        *) GENERATE_ARGS+=("$1"); shift ;;
+    esac
+done
+
+python3 "$SCRIPT_DIR/generate.py" --output "$GENERATED" --apps "$APPS" ${GENERATE_ARGS[@]+"${GENERATE_ARGS[@]}"}
+
+# A dedicated output base keeps the measured server apart from the
+# developer's, and lets every run start from a cold analysis cache.
+BAZEL=(bazel "--output_base=$OUTPUT_BASE")
+cd "$WORKSPACE"
+
+# Fetch external repositories once so the runs measure analysis only
+"${BAZEL[@]}" build --nobuild "--target_pattern_file=$GENERATED/targets_${APPS%%,*}.txt" > /dev/null 2>&1
+
+printf 'apps\trun\tanalysis_ms\tconfigured_targets\tretained_heap_mb\n' > "$RESULTS"
+printf '%-6s %-4s %12s %18s %17s\n' apps run analysis_ms configured_targets retained_heap_mb
+
+IFS=',' read -ra COUNTS <<< "$APPS"
+for COUNT in "${COUNTS[@]}"; do
+    for RUN in $(seq 1 "$RUNS"); do
+        "${BAZEL[@]}" shutdown
+        PROFILE="$WORK/profile-$COUNT-$RUN.gz"
+        LOG="$WORK/build-$COUNT-$RUN.log"
+
+        "${BAZEL[@]}" build --nobuild \
+            "--target_pattern_file=$GENERATED/targets_$COUNT.txt" \
+            "--profile=$PROFILE" \
+            > "$LOG" 2>&1
+
+        # "Total interleaved loading-and-analysis phase time  1.234 s"
+        ANALYSIS_MS="$("${BAZEL[@]}" analyze-profile "$PROFILE" 2>/dev/null \
+            | awk '/analysis phase time/ {
+                       for (i = 1; i <= NF; i++) if ($i ~ /^[0-9.]+$/) { v = $i; u = $(i + 1) }
+                       ms = (u == "ms") ? v : v * 1000
+                       printf "%d", ms; exit
+                   }')"
+        # "INFO: Analyzed 1234 targets (...)"
+        TARGETS="$(sed -n 's/.*Analyzed \([0-9]*\) targets.*/\1/p' "$LOG" | tail -1)"
+        # Post-GC heap with the analysis cache still retained
+        HEAP_MB="$("${BAZEL[@]}" info used-heap-size-after-gc 2>/dev/null | sed 's/MB//')"
+
+        printf '%s\t%s\t%s\t%s\t%s\n' "$COUNT" "$RUN" "${ANALYSIS_MS:-?}" "${TARGETS:-?}" "${HEAP_MB:-?}" >> "$RESULTS"
+        printf '%-6s %-4s %12s %18s %17s\n' "$COUNT" "$RUN" "${ANALYSIS_MS:-?}" "${TARGETS:-?}" "${HEAP_MB:-?}"
+    done
+done
+
+"${BAZEL[@]}" shutdown
+echo "Results: $RESULTS"
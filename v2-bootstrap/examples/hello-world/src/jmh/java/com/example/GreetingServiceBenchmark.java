@@ -0,0 +1,27 @@
+package com.example;
+
+import io.quarkus.bazel.jmh.QuarkusApp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks GreetingService through its ArC client proxy, as called by
+ * GreetingResource in the running application.
+ */
+@State(Scope.Benchmark)
+public class GreetingServiceBenchmark {
+
+    private GreetingService service;
+
+    @Setup
+    public void lookup(QuarkusApp app) {
+        service = app.bean(GreetingService.class);
+    }
+
+    @Benchmark
+    public String greet() {
+        return service.greet("bazel");
+    }
+}
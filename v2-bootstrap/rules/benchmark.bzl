@@ -0,0 +1,352 @@
+"""
+Quarkus Benchmarks (Approach 2)
+
+Measures startup time and footprint of an augmented Quarkus application,
+and runs JMH microbenchmarks against its beans.
+"""
+
+load("@rules_java//java:defs.bzl", "JavaInfo", "java_library")
+
+def _shell_quote(value):
+    return "'" + value.replace("'", "'\\''") + "'"
+
+def _quarkus_startup_benchmark_impl(ctx):
+    """
+    Implementation of quarkus_startup_benchmark rule.
+
+    Writes a launcher script that runs StartupBenchmark against the
+    augmented quarkus-app directory from the runfiles tree.
+    """
+    # Library symlinks (symlink_libraries) are listed next to the app output
+    app_dirs = [
+        f
+        for f in ctx.attr.application[DefaultInfo].files.to_list()
+        if f.basename.endswith("-quarkus-app") or f.basename.endswith("-quarkus-app.zip")
+    ]
+    if len(app_dirs) != 1:
+        fail("quarkus_startup_benchmark: expected one quarkus-app directory in %s" % ctx.attr.application.label)
+    app_dir = app_dirs[0]
+
+    tool_args = [
+        "--app-dir",
+        app_dir.short_path,
+        "--runs",
+        str(ctx.attr.runs),
+        "--path",
+        ctx.attr.path,
+        "--timeout-seconds",
+        str(ctx.attr.timeout_seconds),
+    ]
+    for config_name, flags in sorted(ctx.attr.jvm_flags_matrix.items()):
+        tool_args += ["--config", "%s=%s" % (config_name, " ".join(flags))]
+
+    # runtime_config of the application, loaded by every run the way the
+    # runner loads it. The app runs from its quarkus-app directory, so the
+    # locations are made absolute against the runfiles tree.
+    config_files = ctx.files.runtime_config
+    config_args = ""
+    if config_files:
+        config_args = "--jvm-flag \"-Dquarkus.config.locations=%s\"" % ",".join([
+            "$PWD/" + f.short_path
+            for f in config_files
+        ])
+
+    script = ctx.actions.declare_file(ctx.label.name + ".sh")
+    ctx.actions.write(
+        output = script,
+        is_executable = True,
+        content = """#!/bin/bash
+set -e
+
+# Run from the runfiles tree so the quarkus-app directory resolves
+RUNFILES="${{RUNFILES_DIR:-$0.runfiles}}"
+export JAVA_RUNFILES="$RUNFILES"
+cd "$RUNFILES/{workspace}"
+
+exec {tool} {args} {config_args} "$@"
+""".format(
+            workspace = ctx.workspace_name,
+            tool = ctx.executable._benchmark.short_path,
+            args = " ".join([_shell_quote(arg) for arg in tool_args]),
+            config_args = config_args,
+        ),
+    )
+
+    runfiles = ctx.runfiles(files = [app_dir] + config_files)
+    runfiles = runfiles.merge(ctx.attr.application[DefaultInfo].default_runfiles)
+    runfiles = runfiles.merge(ctx.attr._benchmark[DefaultInfo].default_runfiles)
+
+    return [DefaultInfo(executable = script, runfiles = runfiles)]
+
+_quarkus_startup_benchmark = rule(
+    implementation = _quarkus_startup_benchmark_impl,
+    executable = True,
+    attrs = {
+        "application": attr.label(
+            mandatory = True,
+            doc = "Augmented application (quarkus_bootstrap target)",
+        ),
+        "runtime_config": attr.label_list(
+            allow_files = True,
+            default = [],
+            doc = "Runtime-only configuration files loaded via quarkus.config.locations",
+        ),
+        "runs": attr.int(
+            default = 10,
+            doc = "Number of runs per JVM flag set",
+        ),
+        "path": attr.string(
+            default = "/hello",
+            doc = "HTTP path probed for the first successful response, e.g. /q/health/ready",
+        ),
+        "timeout_seconds": attr.int(
+            default = 60,
+            doc = "Per-run timeout",
+        ),
+        "jvm_flags_matrix": attr.string_list_dict(
+            default = {},
+            doc = "Named JVM flag sets to compare (default: one set without flags)",
+        ),
+        "_benchmark": attr.label(
+            default = Label("//v2-bootstrap/tools:startup_benchmark"),
+            executable = True,
+            cfg = "target",
+            doc = "Startup benchmark tool",
+        ),
+    },
+)
+
+def quarkus_startup_benchmark(
+        name,
+        application,
+        runs = 10,
+        path = "/hello",
+        timeout_seconds = 60,
+        jvm_flags_matrix = {},
+        visibility = None,
+        tags = [],
+        **kwargs):
+    """
+    Startup and footprint benchmark for a quarkus_application.
+
+    `bazel run` starts the application `runs` times for every entry of
+    `jvm_flags_matrix` and measures, from JVM start, the time to the
+    "Listening on" log line and to the first 2xx response of `path`, plus
+    RSS after that response. The application's runtime_config is loaded
+    like the runner does. p50/p95/min/max per flag set are printed as
+    JSON; pass `-- --output /abs/path.json` to also write them to a file
+    for comparison between commits.
+
+    Args:
+        name: Benchmark target name
+        application: quarkus_application name (e.g. ":my-app")
+        runs: Runs per JVM flag set
+        path: HTTP path probed for the first response
+        timeout_seconds: Per-run timeout
+        jvm_flags_matrix: Dict of name -> JVM flags to compare
+        visibility: Target visibility
+        tags: Build tags
+        **kwargs: Additional arguments
+
+    Example:
+        quarkus_startup_benchmark(
+            name = "my-app-startup",
+            application = ":my-app",
+            path = "/q/health/ready",
+            jvm_flags_matrix = {
+                "default": [],
+                "serial-gc": ["-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1"],
+            },
+        )
+    """
+    _quarkus_startup_benchmark(
+        name = name,
+        application = application + "_augmented",
+        runtime_config = [application + "_runtime_config_files"],
+        runs = runs,
+        path = path,
+        timeout_seconds = timeout_seconds,
+        jvm_flags_matrix = jvm_flags_matrix,
+        visibility = visibility,
+        tags = tags + ["manual"],
+        **kwargs
+    )
+
+def _quarkus_jmh_benchmark_impl(ctx):
+    """
+    Implementation of quarkus_jmh_benchmark rule.
+
+    Writes a launcher script that runs org.openjdk.jmh.Main on the class
+    path of the augmented quarkus-app (transformed and generated bytecode
+    first, then app/, lib/boot/ and lib/main/), followed by the compiled
+    benchmarks, the QuarkusApp support state and JMH itself.
+    """
+    app_dirs = [
+        f
+        for f in ctx.attr.application[DefaultInfo].files.to_list()
+        if f.basename.endswith("-quarkus-app")
+    ]
+    if len(app_dirs) != 1:
+        fail("quarkus_jmh_benchmark: expected one quarkus-app directory in %s " % ctx.attr.application.label +
+             "(output_format = \"zip\" is not supported)")
+    app_dir = app_dirs[0]
+    libs_dir = app_dir.short_path[:-len("-quarkus-app")] + "-quarkus-libs"
+
+    # Only the benchmark and support class JARs: Quarkus, ArC and the
+    # application classes must come from the augmented output.
+    benchmark_jars = [output.class_jar for output in ctx.attr.benchmarks[JavaInfo].outputs.jars]
+    benchmark_jars += [output.class_jar for output in ctx.attr._support[JavaInfo].outputs.jars]
+    jmh_jars = ctx.attr._jmh[JavaInfo].transitive_runtime_jars.to_list()
+
+    script = ctx.actions.declare_file(ctx.label.name + ".sh")
+    ctx.actions.write(
+        output = script,
+        is_executable = True,
+        content = """#!/bin/bash
+set -e
+
+RUNFILES="${{RUNFILES_DIR:-$0.runfiles}}"
+ROOT="$RUNFILES/{workspace}"
+APP="$ROOT/{app_dir}"
+LIBS="$ROOT/{libs_dir}"
+
+CP="$APP/quarkus/transformed-bytecode.jar:$APP/quarkus/generated-bytecode.jar"
+CP="$CP:$APP/app/*:$APP/lib/boot/*:$APP/lib/main/*"
+if [ -d "$LIBS" ]; then
+    CP="$CP:$LIBS/*"
+fi
+for JAR in {jars}; do
+    CP="$CP:$ROOT/$JAR"
+done
+
+# Standard JMH JSON results, relative to the directory of `bazel run`
+RESULT={result}
+case "$RESULT" in
+    /*) ;;
+    *) RESULT="${{BUILD_WORKING_DIRECTORY:-$PWD}}/$RESULT" ;;
+esac
+
+exec java {jvm_flags} -cp "$CP" org.openjdk.jmh.Main -rf json -rff "$RESULT" {jmh_args} "$@"
+""".format(
+            workspace = ctx.workspace_name,
+            app_dir = app_dir.short_path,
+            libs_dir = libs_dir,
+            jars = " ".join([_shell_quote(jar.short_path) for jar in benchmark_jars + jmh_jars]),
+            result = _shell_quote(ctx.attr.result),
+            jvm_flags = " ".join([_shell_quote(flag) for flag in ctx.attr.jvm_flags]),
+            jmh_args = " ".join([_shell_quote(arg) for arg in ctx.attr.jmh_args]),
+        ),
+    )
+
+    runfiles = ctx.runfiles(files = benchmark_jars + jmh_jars)
+    runfiles = runfiles.merge(ctx.attr.application[DefaultInfo].default_runfiles)
+
+    return [DefaultInfo(executable = script, runfiles = runfiles)]
+
+_quarkus_jmh_benchmark = rule(
+    implementation = _quarkus_jmh_benchmark_impl,
+    executable = True,
+    attrs = {
+        "application": attr.label(
+            mandatory = True,
+            doc = "Augmented application (quarkus_bootstrap target)",
+        ),
+        "benchmarks": attr.label(
+            providers = [JavaInfo],
+            mandatory = True,
+            doc = "Compiled JMH benchmarks (processed by jmh_annotation_processor)",
+        ),
+        "jvm_flags": attr.string_list(
+            default = [],
+            doc = "JVM flags of the JMH host JVM (inherited by forks)",
+        ),
+        "jmh_args": attr.string_list(
+            default = [],
+            doc = "Default JMH arguments, e.g. ['-f', '1', '-wi', '3']",
+        ),
+        "result": attr.string(
+            default = "jmh-result.json",
+            doc = "JSON result file, relative to the directory bazel run was started in",
+        ),
+        "_support": attr.label(
+            default = Label("//v2-bootstrap/tools:quarkus_jmh_support"),
+            providers = [JavaInfo],
+        ),
+        "_jmh": attr.label(
+            default = Label("@maven//:org_openjdk_jmh_jmh_core"),
+            providers = [JavaInfo],
+        ),
+    },
+)
+
+def quarkus_jmh_benchmark(
+        name,
+        application,
+        srcs,
+        deps = [],
+        jvm_flags = [],
+        jmh_args = [],
+        result = "jmh-result.json",
+        visibility = None,
+        tags = [],
+        **kwargs):
+    """
+    JMH microbenchmarks of the beans of an augmented quarkus_application.
+
+    The benchmarks are compiled against {application}_lib and run on the
+    class path of the augmented output, so they exercise ArC client
+    proxies, interceptors and generated code exactly as in production.
+    Take io.quarkus.bazel.jmh.QuarkusApp as a parameter: it boots the
+    application once per fork in @Setup and looks beans up through
+    Arc.container().
+
+    `bazel run` writes standard JMH JSON results to `result` (relative to
+    the directory the command was started in). Further JMH options can be
+    passed after `--`, e.g. `bazel run :my-app-jmh -- -f 1 GreetingBenchmark`.
+
+    Args:
+        name: Benchmark target name
+        application: quarkus_application name (e.g. ":my-app")
+        srcs: JMH benchmark sources
+        deps: Additional compile dependencies of the benchmarks
+        jvm_flags: JVM flags (forks inherit them)
+        jmh_args: Default JMH arguments
+        result: JSON result file
+        visibility: Target visibility
+        tags: Build tags
+        **kwargs: Additional arguments
+
+    Example:
+        quarkus_jmh_benchmark(
+            name = "my-app-jmh",
+            application = ":my-app",
+            srcs = glob(["src/jmh/java/**/*.java"]),
+            jvm_flags = ["-Djava.util.logging.manager=org.jboss.logmanager.LogManager"],
+            jmh_args = ["-f", "1", "-wi", "3", "-i", "5"],
+        )
+    """
+    java_library(
+        name = name + "_benchmarks",
+        srcs = srcs,
+        deps = [
+            application + "_lib",
+            Label("//v2-bootstrap/tools:quarkus_jmh_support"),
+            Label("@maven//:io_quarkus_arc_arc"),
+            Label("@maven//:org_openjdk_jmh_jmh_core"),
+        ] + deps,
+        plugins = [Label("//v2-bootstrap/tools:jmh_annotation_processor")],
+        visibility = ["//visibility:private"],
+        tags = tags + ["manual"],
+    )
+
+    _quarkus_jmh_benchmark(
+        name = name,
+        application = application + "_augmented",
+        benchmarks = ":" + name + "_benchmarks",
+        jvm_flags = jvm_flags,
+        jmh_args = jmh_args,
+        result = result,
+        visibility = visibility,
+        tags = tags + ["manual"],
+        **kwargs
+    )
@@ -6,39 +6,106 @@ Uses QuarkusBootstrap API for augmentation.
 """
 
 load("@rules_java//java:defs.bzl", "java_binary", "java_library")
-load("//v2-bootstrap/rules:quarkus_bootstrap.bzl", "quarkus_bootstrap")
+load("//v2-bootstrap/rules:quarkus_bootstrap.bzl", "quarkus_bootstrap", "quarkus_curated_deps", "quarkus_jandex_jar")
 
 def quarkus_application(
         name,
         srcs = [],
         resources = [],
+        runtime_config = [],
         deps = [],
         runtime_extensions = [],
         deployment_extensions = [],
+        curated_deps = None,
         main_class = "io.quarkus.runner.GeneratedMain",
         jvm_flags = [],
+        prune_unused_jars = "off",
+        prune_safelist = [],
+        allow_unmapped_extensions = [],
+        jandex_index = True,
+        class_load_order = None,
+        train_class_load_order = False,
+        lib_layout = "fast-jar",
+        augment_cpus = 2,
+        augment_memory_mb = 2048,
+        augmentor_cds = False,
+        output_format = "directory",
+        symlink_libraries = False,
+        build_properties = {},
+        variants = {},
         visibility = None,
         tags = [],
         **kwargs):
     """
     Builds a Quarkus application using QuarkusBootstrap API.
 
-    This macro creates three targets:
+    This macro creates five targets:
     1. {name}_lib - Compiles application sources
-    2. {name}_augmented - Runs Quarkus augmentation
-    3. {name} - Final executable application
+    2. {name}_indexed - {name}_lib with an embedded Jandex index (unless
+       jandex_index is False)
+    3. {name}_deps - Curates runtime/deployment dependencies (unless
+       curated_deps is given)
+    4. {name}_augmented - Runs Quarkus augmentation
+    5. {name} - Final executable application
+    plus {name}_footprint (manual, heap footprint report of the running
+    app), and {name}_{variant}_augmented, {name}_{variant} and
+    {name}_{variant}_footprint for every entry of variants.
 
     Args:
         name: Application name
         srcs: Java source files
-        resources: Application resources (application.properties, etc.)
+        resources: Application resources (application.properties, etc.).
+            These are augmentation inputs: keep only build-time properties here
+        runtime_config: Runtime-only configuration files (e.g. an
+            application.properties with quarkus.http.port or log levels).
+            Placed in {name}_config/config/ (keeping their package-relative
+            path) next to the augmented output and loaded at startup via
+            quarkus.config.locations, so changing them does not re-run
+            augmentation. Two entries with the same path fail the build
         deps: Regular dependencies (non-Quarkus libraries)
         runtime_extensions: Quarkus runtime extension modules
             e.g., @maven//:io_quarkus_quarkus_arc
         deployment_extensions: Quarkus deployment modules
             e.g., @maven//:io_quarkus_quarkus_arc_deployment
+        curated_deps: Optional shared quarkus_curated_deps target built from
+            the same runtime/deployment extensions. Lets apps with the same
+            extension set share one cached curation action; without it each
+            app gets a private {name}_deps and nothing is shared. Only
+            extension detection and flagging are cached:
+            QuarkusBootstrap.bootstrap() still runs in every augmentation
         main_class: Main class (default: io.quarkus.runner.GeneratedMain)
         jvm_flags: JVM flags for running the application
+        prune_unused_jars: "off", "report" or "exclude" - find lib/main JARs
+            with no reachable class and optionally drop them
+        prune_safelist: JAR file name substrings that are never pruned
+        allow_unmapped_extensions: Runtime extension artifact IDs that may
+            lack a deployment module (skipped by pre-augmentation validation)
+        jandex_index: Build the application Jandex index in a separate cached
+            action and embed it as META-INF/jandex.idx (default: True)
+        class_load_order: Recorded class-load order file used to lay out
+            app/ and generated bytecode JARs in first-use order
+        train_class_load_order: Record the class-load order by starting the
+            augmented app during the build (output group 'class_load_order')
+        lib_layout: "fast-jar" (default) or "merged" - merge lib/main into a
+            few uncompressed JARs read without inflation
+        output_format: "directory" (default) or "zip" - emit one STORED
+            quarkus-app.zip instead of a tree artifact; the runner unpacks
+            it once into ~/.cache/quarkus-bazel
+        symlink_libraries: Serve unchanged lib/main JARs through symlinks to
+            the input JARs ({name}_augmented-quarkus-libs/) instead of copying
+            them into the augmented output (directory output only)
+        build_properties: Build-time Quarkus properties passed to augmentation
+            as build system properties, e.g.
+            {"quarkus.arc.remove-unused-beans": "all"}
+        variants: Named extra builds, dict of variant name -> build properties
+            merged over build_properties. Each variant gets its own
+            {name}_{variant}_augmented and runner {name}_{variant}, sharing
+            the compiled {name}_lib
+        augment_cpus: CPUs reserved for augmentation (1, 2, 4 or 8)
+        augment_memory_mb: Memory reserved for augmentation (1024, 2048 or
+            4096); the augmentor gets -Xmx of three quarters of it
+        augmentor_cds: Start the augmentor from the trained AppCDS archive
+            (see quarkus_bootstrap; off until measured)
         visibility: Target visibility
         tags: Build tags
         **kwargs: Additional arguments
@@ -80,67 +147,259 @@ def quarkus_application(
         visibility = ["//visibility:private"],
     )
 
+    # Index application classes once per code change; augmentation then reads
+    # META-INF/jandex.idx instead of scanning the application root.
+    application = ":" + lib_name
+    if jandex_index:
+        application = ":" + name + "_indexed"
+        quarkus_jandex_jar(
+            name = name + "_indexed",
+            library = ":" + lib_name,
+            tags = tags + ["manual"],
+            visibility = ["//visibility:private"],
+        )
+
     # ============================================================================
     # LAYER 2: AUGMENTATION
-    # Run QuarkusBootstrap to generate CDI proxies, optimized bytecode, etc.
+    # Curate dependencies, then run QuarkusBootstrap to generate CDI proxies,
+    # optimized bytecode, etc.
     # ============================================================================
-    augmented_name = name + "_augmented"
-
-    quarkus_bootstrap(
-        name = augmented_name,
-        application = [":" + lib_name],
-        runtime_deps = runtime_extensions,
-        deployment_deps = deployment_extensions,
-        application_name = name,
-        main_class = main_class,
-        tags = tags + ["manual"],
-        visibility = ["//visibility:private"],
-    )
+    # Dependency curation depends only on extension JARs and is cached
+    # independently of application code.
+    if not curated_deps:
+        curated_deps = ":" + name + "_deps"
+        quarkus_curated_deps(
+            name = name + "_deps",
+            runtime_deps = runtime_extensions,
+            deployment_deps = deployment_extensions,
+            allow_unmapped_extensions = allow_unmapped_extensions,
+            tags = tags + ["manual"],
+            visibility = ["//visibility:private"],
+        )
+
+    # The default build plus one build per variant. All of them share _lib,
+    # the Jandex index and the curated dependencies; only augmentation and
+    # the runner are per variant.
+    builds = [(name, build_properties)]
+    for variant_name, variant_properties in sorted(variants.items()):
+        properties = dict(build_properties)
+        properties.update(variant_properties)
+        builds.append((name + "_" + variant_name, properties))
+
+    for build_name, properties in builds:
+        quarkus_bootstrap(
+            name = build_name + "_augmented",
+            application = [application],
+            curated_deps = curated_deps,
+            application_name = name,
+            main_class = main_class,
+            build_properties = properties,
+            prune_unused_jars = prune_unused_jars,
+            prune_safelist = prune_safelist,
+            class_load_order = class_load_order,
+            train_class_load_order = train_class_load_order,
+            lib_layout = lib_layout,
+            augment_cpus = augment_cpus,
+            augment_memory_mb = augment_memory_mb,
+            augmentor_cds = augmentor_cds,
+            output_format = output_format,
+            symlink_libraries = symlink_libraries,
+            tags = tags + ["manual"],
+            visibility = ["//visibility:private"],
+        )
 
     # ============================================================================
     # LAYER 3: RUNTIME
     # Create executable that runs the augmented application
     # ============================================================================
 
+    # Runtime-only configuration is copied next to the augmented output
+    # instead of into _lib, so editing it never invalidates augmentation.
+    config_files = []
+    if runtime_config:
+        sources = {}
+        for src in runtime_config:
+            path = _config_path(src)
+            if path in sources:
+                fail("quarkus_application %s: runtime_config %s and %s both map to config/%s; " % (
+                    name,
+                    sources[path],
+                    src,
+                    path,
+                ) + "put them in differently named files or subdirectories")
+            sources[path] = src
+            config_files.append(name + "_config/config/" + path)
+        native.genrule(
+            name = name + "_runtime_config",
+            srcs = runtime_config,
+            outs = config_files,
+            cmd = " && ".join([
+                "cp $(location %s) $(location %s)" % (src, out)
+                for src, out in zip(runtime_config, config_files)
+            ]),
+            tags = tags,
+            visibility = ["//visibility:private"],
+        )
+
+    for build_name, _ in builds:
+        # Runtime config of this build for tools that start it outside the
+        # runner (quarkus_startup_benchmark); empty without runtime_config
+        native.filegroup(
+            name = build_name + "_runtime_config_files",
+            srcs = config_files,
+            tags = tags,
+            visibility = ["//visibility:private"],
+        )
+        _quarkus_runner(
+            name = build_name,
+            augmented_name = build_name + "_augmented",
+            config_files = config_files,
+            runtime_extensions = runtime_extensions,
+            jvm_flags = jvm_flags,
+            visibility = visibility,
+            tags = tags,
+        )
+        _quarkus_footprint(
+            name = build_name,
+            augmented_name = build_name + "_augmented",
+            config_files = config_files,
+            runtime_extensions = runtime_extensions,
+            jvm_flags = jvm_flags,
+            tags = tags,
+        )
+
+def _config_path(src):
+    """
+    Path of a runtime_config file below {name}_config/config/: the
+    package-relative path for files of this package, the target name for
+    labels of other packages.
+    """
+    if src.startswith("//") or src.startswith("@"):
+        if ":" in src:
+            return src.split(":")[-1]
+        return src.split("/")[-1]
+    return src.split(":")[-1]
+
+_FOOTPRINT_REPORT = Label("//v2-bootstrap/tools:footprint_report")
+
+# Shared start of the runner scripts: locates the quarkus-app (unpacking a
+# zip output once) and builds CONFIG_FLAGS for runtime_config.
+_RUNNER_PRELUDE = """
+#!/bin/bash
+set -e
+
+# Find the script directory
+SCRIPT_DIR="$$(cd "$$(dirname "$$0")" && pwd)"
+QUARKUS_APP="$$SCRIPT_DIR/{augmented}-quarkus-app"
+
+# Single-archive output (output_format = "zip"): unpack once into a cache
+# keyed by archive size and mtime, then run from there
+if [ -f "$$QUARKUS_APP.zip" ]; then
+    STAMP="$$(stat -L -c '%s-%Y' "$$QUARKUS_APP.zip" 2>/dev/null || stat -L -f '%z-%m' "$$QUARKUS_APP.zip")"
+    CACHE_ROOT="$${{QUARKUS_APP_CACHE:-$${{XDG_CACHE_HOME:-$$HOME/.cache}}/quarkus-bazel}}"
+    CACHE="$$CACHE_ROOT/{augmented}-$$STAMP"
+    if [ ! -d "$$CACHE" ]; then
+        mkdir -p "$$CACHE_ROOT"
+        TMP="$$(mktemp -d "$$CACHE.XXXXXX")"
+        (cd "$$TMP" && {{ unzip -q "$$QUARKUS_APP.zip" || jar xf "$$QUARKUS_APP.zip"; }})
+        if [ -d "$$CACHE" ]; then rm -rf "$$TMP"; else mv "$$TMP" "$$CACHE"; fi
+    fi
+    QUARKUS_APP="$$CACHE"
+fi
+
+# Runtime-only configuration (runtime_config), loaded at startup
+CONFIG_FLAGS=()
+CONFIG_LOCATIONS="{config_locations}"
+if [ -n "$$CONFIG_LOCATIONS" ]; then
+    CONFIG_FLAGS=("-Dquarkus.config.locations=$${{CONFIG_LOCATIONS//@DIR@/$$SCRIPT_DIR}}")
+fi
+"""
+
+def _runner_script(name, augmented_name, config_files, jvm_flags, body, srcs = [], tags = []):
+    """
+    Generates {name}_runner.sh: the runner prelude followed by body, both
+    formatted with the augmented output, config locations and JVM flags.
+    """
+    native.genrule(
+        name = name + "_runner_script",
+        srcs = srcs,
+        outs = [name + "_runner.sh"],
+        cmd = ("cat > $@ << 'EOF'" + _RUNNER_PRELUDE + body + """EOF
+chmod +x $@
+""").format(
+            augmented = augmented_name,
+            config_locations = ",".join(["@DIR@/" + f for f in config_files]),
+            footprint_report = str(_FOOTPRINT_REPORT),
+            jvm_flags = " ".join(jvm_flags),
+        ),
+        tags = tags,
+        visibility = ["//visibility:private"],
+    )
+
+def _quarkus_runner(name, augmented_name, config_files, runtime_extensions, jvm_flags, visibility, tags):
+    """
+    Creates the executable {name} that runs an augmented quarkus-app.
+    """
+
     # For now, create a simple runner that uses the augmented output
     # TODO: Create proper java_binary that uses quarkus-run.jar
 
     native.sh_binary(
         name = name,
         srcs = [name + "_runner.sh"],
-        data = [
-            ":" + augmented_name,
-        ] + runtime_extensions,
+        data = [":" + augmented_name] + config_files + runtime_extensions,
         visibility = visibility,
         tags = tags,
     )
 
-    # Generate runner script
-    native.genrule(
-        name = name + "_runner_script",
-        outs = [name + "_runner.sh"],
-        cmd = """
-cat > $@ << 'EOF'
-#!/bin/bash
-set -e
-
-# Find the script directory
-SCRIPT_DIR="$$(cd "$$(dirname "$$0")" && pwd)"
-QUARKUS_APP="$$SCRIPT_DIR/{augmented}-quarkus-app"
+    _runner_script(name, augmented_name, config_files, jvm_flags, """
+# Read JARs ahead in first-use order (written by class-load order layout)
+if [ -f "$$QUARKUS_APP/preload-jars.txt" ]; then
+    (cd "$$QUARKUS_APP" && xargs cat < preload-jars.txt > /dev/null 2>&1) &
+fi
 
 # Run with explicit classpath including lib/boot and lib/main
-exec java {jvm_flags} \\
+exec java {jvm_flags} "$${{CONFIG_FLAGS[@]}}" \\
     -cp "$$QUARKUS_APP/lib/boot/*:$$QUARKUS_APP/lib/main/*:$$QUARKUS_APP/quarkus-run.jar" \\
     io.quarkus.bootstrap.runner.QuarkusEntryPoint "$$@"
-EOF
-chmod +x $@
-""".format(
-            augmented = augmented_name,
-            jvm_flags = " ".join(jvm_flags),
-        ),
+""")
+
+def _quarkus_footprint(name, augmented_name, config_files, runtime_extensions, jvm_flags, tags):
+    """
+    Creates {name}_footprint, which starts the augmented quarkus-app, reports
+    the shallow size of live instances by extension, JAR, package and ArC
+    bean as JSON (FootprintReport), then stops it.
+
+    Tagged manual so only an explicit build or run pulls the report tool in;
+    the runner {name} does not carry it.
+
+    Usage: bazel run //pkg:{name}_footprint [-- report.json [heap.hprof]]
+    """
+    native.sh_binary(
+        name = name + "_footprint",
+        srcs = [name + "_footprint_runner.sh"],
+        data = [":" + augmented_name, _FOOTPRINT_REPORT] + config_files + runtime_extensions,
         visibility = ["//visibility:private"],
+        tags = tags + ["manual"],
     )
 
+    _runner_script(name + "_footprint", augmented_name, config_files, jvm_flags, """
+RUNFILES="$${{RUNFILES_DIR:-$$0.runfiles}}"
+export JAVA_RUNFILES="$$RUNFILES"
+resolve() {{ case "$$1" in /*) echo "$$1" ;; *) echo "$${{BUILD_WORKING_DIRECTORY:-$$PWD}}/$$1" ;; esac; }}
+FOOTPRINT_ARGS=(--app-dir "$$QUARKUS_APP")
+if [ -n "$${{1:-}}" ]; then
+    FOOTPRINT_ARGS+=(--output "$$(resolve "$$1")")
+fi
+if [ -n "$${{2:-}}" ]; then
+    FOOTPRINT_ARGS+=(--heap-dump "$$(resolve "$$2")")
+fi
+for FLAG in {jvm_flags} "$${{CONFIG_FLAGS[@]}}"; do
+    FOOTPRINT_ARGS+=(--jvm-flag "$$FLAG")
+done
+exec "$$RUNFILES/_main/$(rootpath {footprint_report})" "$${{FOOTPRINT_ARGS[@]}}"
+""", srcs = [_FOOTPRINT_REPORT], tags = tags + ["manual"])
+
 def quarkus_library(
         name,
         srcs = [],
@@ -6,87 +6,693 @@ It takes compiled application classes and runs the full Quarkus augmentation
 pipeline to generate CDI proxies, optimized bytecode, and more.
 """
 
-load("@rules_java//java:defs.bzl", "JavaInfo")
+load("@rules_java//java:defs.bzl", "JavaInfo", "java_common")
+
+QuarkusCuratedDepsInfo = provider(
+    doc = "Curated Quarkus dependency set, independent of application code",
+    fields = {
+        "model": "File: serialized curated dependencies",
+        "runtime_jars": "depset of runtime JARs",
+        "deployment_jars": "depset of deployment JARs",
+        "validation": "File or None: extension validation report",
+    },
+)
+
+def _jar_list_args(actions, flag, jars):
+    """
+    Creates an Args object that writes a JAR depset to its own param file.
+
+    The command line only receives `<flag>=@<paramfile>`; the file lists one
+    unique path per line and the depset is expanded at execution time.
+    """
+    args = actions.args()
+    args.use_param_file(flag + "=@%s", use_always = True)
+    args.set_param_file_format("multiline")
+    args.add_all(jars, uniquify = True)
+    return args
+
+def _validate_extensions(ctx, runtime_jars, deployment_jars):
+    """
+    Registers the fast extension/deployment consistency check.
+
+    Returns the validation report, or None when validation is disabled.
+    The report is an input of the augmentation action, so a missing or
+    mismatched deployment module fails the build before augmentation starts.
+    """
+    if not ctx.attr.validate_extensions:
+        return None
+
+    report = ctx.actions.declare_file(ctx.label.name + "-validation.txt")
+
+    args = ctx.actions.args()
+    args.add("--output", report)
+    if ctx.attr.allow_unmapped_extensions:
+        args.add_joined("--allow-unmapped", ctx.attr.allow_unmapped_extensions, join_with = ",")
+
+    # Both class paths are inputs: the validator reads the Maven metadata of
+    # deployment JARs too (groupId:artifactId), which must exist in the
+    # sandbox and on remote executors.
+    ctx.actions.run(
+        outputs = [report],
+        inputs = depset(transitive = [runtime_jars, deployment_jars]),
+        executable = ctx.executable._validator,
+        arguments = [
+            args,
+            _jar_list_args(ctx.actions, "--runtime-jars", runtime_jars),
+            _jar_list_args(ctx.actions, "--deployment-jars", deployment_jars),
+        ],
+        mnemonic = "QuarkusValidate",
+        progress_message = "Validating Quarkus extensions for %s" % ctx.label.name,
+    )
+    return report
+
+_VALIDATION_ATTRS = {
+    "validate_extensions": attr.bool(
+        default = True,
+        doc = "Check that every runtime extension has a matching deployment module before augmentation",
+    ),
+    "allow_unmapped_extensions": attr.string_list(
+        default = [],
+        doc = "Runtime extension artifact IDs allowed to have no deployment module",
+    ),
+    "_validator": attr.label(
+        default = Label("//v2-bootstrap/tools:extension_validator"),
+        executable = True,
+        cfg = "exec",
+        doc = "Extension validation tool",
+    ),
+}
+
+# resource_set callbacks must be top-level functions, so every allowed
+# (augment_cpus, augment_memory_mb) combination has its own.
+def _resources_1cpu_1024mb(_os, _inputs_size):
+    return {"cpu": 1, "memory": 1024}
+
+def _resources_1cpu_2048mb(_os, _inputs_size):
+    return {"cpu": 1, "memory": 2048}
+
+def _resources_1cpu_4096mb(_os, _inputs_size):
+    return {"cpu": 1, "memory": 4096}
+
+def _resources_2cpu_1024mb(_os, _inputs_size):
+    return {"cpu": 2, "memory": 1024}
+
+def _resources_2cpu_2048mb(_os, _inputs_size):
+    return {"cpu": 2, "memory": 2048}
+
+def _resources_2cpu_4096mb(_os, _inputs_size):
+    return {"cpu": 2, "memory": 4096}
+
+def _resources_4cpu_1024mb(_os, _inputs_size):
+    return {"cpu": 4, "memory": 1024}
+
+def _resources_4cpu_2048mb(_os, _inputs_size):
+    return {"cpu": 4, "memory": 2048}
+
+def _resources_4cpu_4096mb(_os, _inputs_size):
+    return {"cpu": 4, "memory": 4096}
+
+def _resources_8cpu_1024mb(_os, _inputs_size):
+    return {"cpu": 8, "memory": 1024}
+
+def _resources_8cpu_2048mb(_os, _inputs_size):
+    return {"cpu": 8, "memory": 2048}
+
+def _resources_8cpu_4096mb(_os, _inputs_size):
+    return {"cpu": 8, "memory": 4096}
+
+_AUGMENT_RESOURCE_SETS = {
+    (1, 1024): _resources_1cpu_1024mb,
+    (1, 2048): _resources_1cpu_2048mb,
+    (1, 4096): _resources_1cpu_4096mb,
+    (2, 1024): _resources_2cpu_1024mb,
+    (2, 2048): _resources_2cpu_2048mb,
+    (2, 4096): _resources_2cpu_4096mb,
+    (4, 1024): _resources_4cpu_1024mb,
+    (4, 2048): _resources_4cpu_2048mb,
+    (4, 4096): _resources_4cpu_4096mb,
+    (8, 1024): _resources_8cpu_1024mb,
+    (8, 2048): _resources_8cpu_2048mb,
+    (8, 4096): _resources_8cpu_4096mb,
+}
+
+def _augment_jvm_flags(ctx):
+    """
+    Sizes the augmentor JVM to the declared resources.
+
+    -Xmx leaves a quarter of the reservation for metaspace, code cache and
+    thread stacks. ActiveProcessorCount sizes the GC and JIT compiler
+    threads and the common ForkJoin pool to the reserved CPUs. It does not
+    bound the Quarkus build step executor (io.quarkus.builder.Execution):
+    its EnhancedQueueExecutor has a fixed pool size that Quarkus 3.20 does
+    not derive from the processor count or expose as a setting, so
+    augment_cpus is the action's expected load, not a hard limit.
+    """
+    return [
+        "-Xmx%dm" % (ctx.attr.augment_memory_mb * 3 // 4),
+        "-XX:ActiveProcessorCount=%d" % ctx.attr.augment_cpus,
+    ]
+
+_AUGMENTOR_MAIN_CLASS = "io.quarkus.bazel.bootstrap.BootstrapAugmentor"
+
+def _run_augmentor_jvm(ctx, jvm_flags, arguments, inputs, **kwargs):
+    """
+    Runs BootstrapAugmentor from its deploy JAR on the exec Java runtime.
+
+    Used instead of the java_binary launcher wherever a CDS archive is
+    involved: the archive only maps when the class path matches the one it
+    was dumped with, and the deploy JAR path relative to the execroot is the
+    same in every action, sandboxed or not.
+    """
+    java_runtime = ctx.attr._java_runtime[java_common.JavaRuntimeInfo]
+    jvm = ctx.actions.args()
+    jvm.add_all(jvm_flags)
+    jvm.add("-cp", ctx.file._augmentor_deploy_jar)
+    jvm.add(_AUGMENTOR_MAIN_CLASS)
+    ctx.actions.run(
+        executable = java_runtime.java_executable_exec_path,
+        tools = java_runtime.files,
+        inputs = depset([ctx.file._augmentor_deploy_jar], transitive = [inputs]),
+        arguments = [jvm] + arguments,
+        **kwargs
+    )
+
+def _link_libraries(ctx, runtime_jars):
+    """
+    Declares a symlink to every runtime JAR in <name>-quarkus-libs/.
+
+    lib/main JARs that augmentation would only copy and rename are then
+    loaded through these symlinks instead of being part of the tree
+    artifact. Which JARs end up in lib/main is only known at execution time,
+    so every runtime JAR gets a symlink; unreferenced ones (lib/boot JARs,
+    rewritten ones) are never opened. The action cannot declare the links
+    itself: symlinks out of a tree artifact are rejected.
+
+    Cost: the runtime depset is flattened once per configured target at
+    analysis time (unlike the lazy depsets elsewhere in this rule), and one
+    symlink action and one output file is declared per runtime JAR. Symlink
+    actions copy no bytes, so this is analysis time, Skyframe memory and
+    action count, roughly linear in the runtime class path size.
+
+    Returns (symlinks, Args for the augmentor).
+    """
+    links_dir = ctx.label.name + "-quarkus-libs"
+    links = []
+    entries = []
+    names = {}
+    for jar in runtime_jars.to_list():
+        name = jar.basename
+        if name.startswith("processed_"):
+            name = name[len("processed_"):]
+        if name in names:
+            name = "%d-%s" % (len(links), name)
+        names[name] = True
+
+        link = ctx.actions.declare_file(links_dir + "/" + name)
+        ctx.actions.symlink(output = link, target_file = jar)
+        links.append(link)
+        entries.append("%s=%s" % (jar.path, name))
+
+    args = ctx.actions.args()
+    args.add("--linked-libraries-dir", "../" + links_dir)
+    args.use_param_file("--linked-libraries=@%s", use_always = True)
+    args.set_param_file_format("multiline")
+    args.add_all(entries)
+    return links, args
+
+def _quarkus_curated_deps_impl(ctx):
+    """
+    Implementation of quarkus_curated_deps rule.
+
+    Runs extension detection and dependency flagging once for a dependency
+    set. Inputs are only runtime/deployment JARs, so the action is cached
+    across commits and shared by all applications that reference it.
+    """
+    model = ctx.actions.declare_file(ctx.label.name + ".curated")
+
+    runtime_jars = depset(transitive = [
+        dep[JavaInfo].transitive_runtime_jars
+        for dep in ctx.attr.runtime_deps
+    ])
+    deployment_jars = depset(transitive = [
+        dep[JavaInfo].transitive_runtime_jars
+        for dep in ctx.attr.deployment_deps
+    ])
+
+    validation = _validate_extensions(ctx, runtime_jars, deployment_jars)
+
+    args = ctx.actions.args()
+    args.add("--output", model)
+
+    ctx.actions.run(
+        outputs = [model],
+        inputs = depset(transitive = [runtime_jars, deployment_jars]),
+        executable = ctx.executable._curator,
+        arguments = [
+            args,
+            _jar_list_args(ctx.actions, "--runtime-jars", runtime_jars),
+            _jar_list_args(ctx.actions, "--deployment-jars", deployment_jars),
+        ],
+        mnemonic = "QuarkusCurate",
+        progress_message = "Curating Quarkus dependencies for %s" % ctx.label.name,
+    )
+
+    return [
+        DefaultInfo(files = depset([model])),
+        QuarkusCuratedDepsInfo(
+            model = model,
+            runtime_jars = runtime_jars,
+            deployment_jars = deployment_jars,
+            validation = validation,
+        ),
+        OutputGroupInfo(
+            _validation = depset([validation] if validation else []),
+        ),
+    ]
+
+quarkus_curated_deps = rule(
+    implementation = _quarkus_curated_deps_impl,
+    attrs = dict({
+        "runtime_deps": attr.label_list(
+            providers = [JavaInfo],
+            default = [],
+            doc = "Runtime dependencies (Quarkus extensions, other libs)",
+        ),
+        "deployment_deps": attr.label_list(
+            providers = [JavaInfo],
+            default = [],
+            doc = "Deployment dependencies (Quarkus *-deployment modules)",
+        ),
+        "_curator": attr.label(
+            default = Label("//v2-bootstrap/tools:dependency_curator"),
+            executable = True,
+            cfg = "exec",
+            doc = "Dependency curation tool",
+        ),
+    }, **_VALIDATION_ATTRS),
+    doc = """
+    Curates Quarkus runtime/deployment dependencies into a serialized model.
+
+    This is the application-independent part of augmentation: extension
+    detection, deployment mapping and dependency flags. It is not the
+    CuratedApplication: QuarkusBootstrap.bootstrap() and its class loaders
+    are still built inside every augmentation. Declare one target per
+    extension set and pass it as `curated_deps` to every
+    quarkus_application/quarkus_bootstrap that uses the same extensions;
+    quarkus_application otherwise creates a private one per app.
+
+    Example:
+        quarkus_curated_deps(
+            name = "rest-deps",
+            runtime_deps = ["@maven//:io_quarkus_quarkus_rest"],
+            deployment_deps = ["@maven//:io_quarkus_quarkus_rest_deployment"],
+        )
+    """,
+)
+
+def _quarkus_jandex_jar_impl(ctx):
+    """
+    Implementation of quarkus_jandex_jar rule.
+
+    Indexes the library's class JAR in its own action and emits a copy with
+    META-INF/jandex.idx embedded. The action depends only on the library
+    JAR, so the index is cached and rebuilt only when application classes
+    change, and augmentation reads it instead of scanning the classes.
+    """
+    library = ctx.attr.library[JavaInfo]
+    class_jars = [output.class_jar for output in library.outputs.jars]
+    if len(class_jars) != 1:
+        fail("quarkus_jandex_jar: expected exactly one class JAR in %s" % ctx.attr.library.label)
+
+    indexed_jar = ctx.actions.declare_file(ctx.label.name + ".jar")
+
+    args = ctx.actions.args()
+    args.add("--input", class_jars[0])
+    args.add("--output", indexed_jar)
+
+    ctx.actions.run(
+        outputs = [indexed_jar],
+        inputs = class_jars,
+        executable = ctx.executable._indexer,
+        arguments = [args],
+        mnemonic = "QuarkusJandex",
+        progress_message = "Indexing application classes for %s" % ctx.label.name,
+    )
+
+    return [
+        DefaultInfo(files = depset([indexed_jar])),
+        JavaInfo(
+            output_jar = indexed_jar,
+            compile_jar = indexed_jar,
+        ),
+    ]
+
+quarkus_jandex_jar = rule(
+    implementation = _quarkus_jandex_jar_impl,
+    attrs = {
+        "library": attr.label(
+            providers = [JavaInfo],
+            mandatory = True,
+            doc = "Application java_library to index",
+        ),
+        "_indexer": attr.label(
+            default = Label("//v2-bootstrap/tools:jandex_jar_indexer"),
+            executable = True,
+            cfg = "exec",
+            doc = "Jandex JAR indexing tool",
+        ),
+    },
+    doc = """
+    Embeds a prebuilt Jandex index (META-INF/jandex.idx) in an application JAR.
+
+    Pass the result as `application` of quarkus_bootstrap so that
+    createProductionApplication reads the index instead of indexing the
+    application root on every augmentation.
+
+    Example:
+        quarkus_jandex_jar(
+            name = "my-app-indexed",
+            library = ":my-app-lib",
+        )
+    """,
+)
+
+_AUGMENTOR_JVM_ATTRS = {
+    "_augmentor_deploy_jar": attr.label(
+        default = Label("//v2-bootstrap/tools:bootstrap_augmentor_deploy.jar"),
+        allow_single_file = True,
+        cfg = "exec",
+        doc = "Bootstrap augmentor as a single JAR (one stable CDS class path entry)",
+    ),
+    "_java_runtime": attr.label(
+        default = Label("@bazel_tools//tools/jdk:current_host_java_runtime"),
+        providers = [java_common.JavaRuntimeInfo],
+        cfg = "exec",
+        doc = "Java runtime of the augmentor JVM",
+    ),
+}
+
+_CDS_TRAINING_CPUS = 2
+_CDS_TRAINING_MEMORY_MB = 2048
+
+def _quarkus_augmentor_cds_impl(ctx):
+    """
+    Dumps a dynamic AppCDS archive of the augmentor's classes.
+
+    Runs one full augmentation of the sample application with
+    -XX:ArchiveClassesAtExit; classes the augmentor loaded through the
+    built-in class loaders (its deploy JAR and the JDK) end up in the
+    archive. The augmented sample itself is only a by-product.
+    """
+    archive = ctx.actions.declare_file(ctx.label.name + ".jsa")
+    training_app = ctx.actions.declare_directory(ctx.label.name + "-training-app")
+
+    application_jars = depset([
+        output.class_jar
+        for dep in ctx.attr.application
+        for output in dep[JavaInfo].outputs.jars
+    ])
+    runtime_jars = depset(transitive = [
+        dep[JavaInfo].transitive_runtime_jars
+        for dep in ctx.attr.runtime_deps
+    ])
+    deployment_jars = depset(transitive = [
+        dep[JavaInfo].transitive_runtime_jars
+        for dep in ctx.attr.deployment_deps
+    ])
+
+    args = ctx.actions.args()
+    args.add("--output-dir", training_app.path)
+    args.add("--app-name", ctx.label.name)
+
+    _run_augmentor_jvm(
+        ctx,
+        jvm_flags = [
+            "-Xmx%dm" % (_CDS_TRAINING_MEMORY_MB * 3 // 4),
+            "-XX:ActiveProcessorCount=%d" % _CDS_TRAINING_CPUS,
+            "-XX:ArchiveClassesAtExit=" + archive.path,
+        ],
+        inputs = depset(transitive = [application_jars, runtime_jars, deployment_jars]),
+        outputs = [archive, training_app],
+        arguments = [
+            args,
+            _jar_list_args(ctx.actions, "--application-jars", application_jars),
+            _jar_list_args(ctx.actions, "--runtime-jars", runtime_jars),
+            _jar_list_args(ctx.actions, "--deployment-jars", deployment_jars),
+        ],
+        mnemonic = "QuarkusAugmentorCds",
+        progress_message = "Training the augmentor CDS archive %s" % ctx.label.name,
+        # A full augmentation, reserved like a default QuarkusBootstrap action
+        resource_set = _AUGMENT_RESOURCE_SETS[(_CDS_TRAINING_CPUS, _CDS_TRAINING_MEMORY_MB)],
+    )
+
+    return [DefaultInfo(files = depset([archive]))]
+
+quarkus_augmentor_cds = rule(
+    implementation = _quarkus_augmentor_cds_impl,
+    attrs = dict({
+        "application": attr.label_list(
+            providers = [JavaInfo],
+            mandatory = True,
+            doc = "Sample application library targets to augment while training",
+        ),
+        "runtime_deps": attr.label_list(
+            providers = [JavaInfo],
+            default = [],
+            doc = "Runtime dependencies of the sample (Quarkus extensions)",
+        ),
+        "deployment_deps": attr.label_list(
+            providers = [JavaInfo],
+            default = [],
+            doc = "Deployment modules of the sample; their build steps decide which augmentor classes are archived",
+        ),
+    }, **_AUGMENTOR_JVM_ATTRS),
+    doc = """
+    Trains an AppCDS archive (<name>.jsa) for the bootstrap augmentor.
+
+    This rule augments a small sample application once with
+    -XX:ArchiveClassesAtExit, and quarkus_bootstrap (augmentor_cds = True)
+    starts augmentation with -XX:SharedArchiveFile pointing at the result.
+    Both run the deploy JAR on the same exec Java runtime, which the archive
+    requires.
+
+    A dynamic archive only holds classes of the built-in class loaders: the
+    JDK and the augmentor deploy JAR (BootstrapAugmentor, bootstrap-core,
+    app-model, Jandex). Build steps and the Gizmo/ArC classes they use are
+    loaded by QuarkusClassLoader from the deployment JARs and are not
+    archived, so the gain is limited to JVM and bootstrap start-up.
+    """,
+)
 
 def _quarkus_bootstrap_impl(ctx):
     """
     Implementation of quarkus_bootstrap rule.
 
     This rule:
-    1. Collects all JAR files from dependencies
+    1. Collects all JAR files from dependencies (as depsets, never flattened)
     2. Runs BootstrapAugmentor with QuarkusBootstrap API
-    3. Outputs the augmented application directory
+    3. Outputs the augmented application directory (or a single zip)
     """
 
-    # Output directory for augmented application
-    output_dir = ctx.actions.declare_directory(ctx.label.name + "-quarkus-app")
+    # Output directory for augmented application, or one STORED archive of it
+    if ctx.attr.output_format == "zip":
+        app_output = ctx.actions.declare_file(ctx.label.name + "-quarkus-app.zip")
+    else:
+        app_output = ctx.actions.declare_directory(ctx.label.name + "-quarkus-app")
 
     # Collect application JARs (user code)
-    application_jars = []
-    for dep in ctx.attr.application:
-        if JavaInfo in dep:
-            for output in dep[JavaInfo].outputs.jars:
-                application_jars.append(output.class_jar)
-
-    # Collect runtime JARs (Quarkus extensions + regular deps)
-    runtime_jars = []
-    for dep in ctx.attr.runtime_deps:
-        if JavaInfo in dep:
-            # Get transitive runtime JARs
-            for jar in dep[JavaInfo].transitive_runtime_jars.to_list():
-                runtime_jars.append(jar)
-
-    # Collect deployment JARs (Quarkus deployment modules)
-    deployment_jars = []
-    for dep in ctx.attr.deployment_deps:
-        if JavaInfo in dep:
-            for jar in dep[JavaInfo].transitive_runtime_jars.to_list():
-                deployment_jars.append(jar)
+    application_jars = depset([
+        output.class_jar
+        for dep in ctx.attr.application
+        for output in dep[JavaInfo].outputs.jars
+    ])
+
+    curated = ctx.attr.curated_deps[QuarkusCuratedDepsInfo] if ctx.attr.curated_deps else None
+    if curated and (ctx.attr.runtime_deps or ctx.attr.deployment_deps):
+        fail("quarkus_bootstrap: set either curated_deps or runtime_deps/deployment_deps, not both")
+
+    if curated:
+        runtime_jars = curated.runtime_jars
+        deployment_jars = curated.deployment_jars
+        validation = curated.validation
+    else:
+        # Collect runtime JARs (Quarkus extensions + regular deps).
+        # Kept as depsets so nothing is flattened at analysis time.
+        runtime_jars = depset(transitive = [
+            dep[JavaInfo].transitive_runtime_jars
+            for dep in ctx.attr.runtime_deps
+        ])
+
+        # Collect deployment JARs (Quarkus deployment modules)
+        deployment_jars = depset(transitive = [
+            dep[JavaInfo].transitive_runtime_jars
+            for dep in ctx.attr.deployment_deps
+        ])
+        validation = _validate_extensions(ctx, runtime_jars, deployment_jars)
 
     # Build command arguments
     args = ctx.actions.args()
-    args.add("--output-dir", output_dir.path)
+    if ctx.attr.output_format == "zip":
+        args.add("--output-zip", app_output.path)
+    else:
+        args.add("--output-dir", app_output.path)
     args.add("--app-name", ctx.attr.application_name)
 
     if ctx.attr.main_class:
         args.add("--main-class", ctx.attr.main_class)
 
-    # Add JAR lists
-    args.add("--application-jars", ",".join([jar.path for jar in application_jars]))
-    args.add("--runtime-jars", ",".join([jar.path for jar in runtime_jars]))
-    args.add("--deployment-jars", ",".join([jar.path for jar in deployment_jars]))
+    # Build-time Quarkus configuration (build system properties)
+    for key, value in sorted(ctx.attr.build_properties.items()):
+        args.add("--build-property", "%s=%s" % (key, value))
+
+    # Optional unused dependency analysis of lib/main
+    outputs = [app_output]
+    prune_report = None
+    if ctx.attr.prune_unused_jars != "off":
+        prune_report = ctx.actions.declare_file(ctx.label.name + "-prune-report.txt")
+        outputs.append(prune_report)
+        args.add("--prune-unused-jars", ctx.attr.prune_unused_jars)
+        args.add("--prune-report", prune_report.path)
+        if ctx.attr.prune_safelist:
+            args.add_joined("--prune-safelist", ctx.attr.prune_safelist, join_with = ",")
+
+    # Optional merged, uncompressed lib/main
+    bundle_report = None
+    if ctx.attr.lib_layout != "fast-jar":
+        bundle_report = ctx.actions.declare_file(ctx.label.name + "-bundle-report.txt")
+        outputs.append(bundle_report)
+        args.add("--lib-layout", ctx.attr.lib_layout)
+        args.add("--bundle-report", bundle_report.path)
+
+    # Deployment-only JARs augmentation never loaded a class from are
+    # reported back to Bazel, so changes to them do not re-run this action.
+    unused_inputs = None
+    if ctx.attr.track_unused_inputs:
+        unused_inputs = ctx.actions.declare_file(ctx.label.name + "-unused-inputs.txt")
+        outputs.append(unused_inputs)
+        args.add("--unused-inputs-list", unused_inputs.path)
+
+    # Optional class-load order layout (recorded file or training run)
+    class_load_order = None
+    if ctx.file.class_load_order and ctx.attr.train_class_load_order:
+        fail("quarkus_bootstrap: set either class_load_order or train_class_load_order, not both")
+    if ctx.attr.train_class_load_order:
+        class_load_order = ctx.actions.declare_file(ctx.label.name + "-class-load-order.txt")
+        outputs.append(class_load_order)
+        args.add("--train-class-load-order", class_load_order.path)
+    elif ctx.file.class_load_order:
+        args.add("--class-load-order", ctx.file.class_load_order)
+
+    # Unchanged lib/main JARs become symlinks to the input JARs
+    library_links = []
+    if ctx.attr.symlink_libraries:
+        if (ctx.attr.output_format != "directory" or ctx.attr.lib_layout != "fast-jar" or
+            ctx.attr.prune_unused_jars == "exclude" or ctx.attr.train_class_load_order):
+            fail("quarkus_bootstrap: symlink_libraries requires output_format = \"directory\", " +
+                 "lib_layout = \"fast-jar\", no prune_unused_jars = \"exclude\" and no " +
+                 "train_class_load_order")
+
+    # JAR lists go into param files (one path per line) that the augmentor
+    # streams, keeping huge classpaths off the command line.
+    arguments = [
+        args,
+        _jar_list_args(ctx.actions, "--application-jars", application_jars),
+    ]
+    direct_inputs = [validation] if validation else []
+    if ctx.file.class_load_order:
+        direct_inputs.append(ctx.file.class_load_order)
+    if curated:
+        # Dependency JARs and flags come from the pre-curated model
+        args.add("--curated-deps", curated.model)
+        direct_inputs.append(curated.model)
+    else:
+        arguments.append(_jar_list_args(ctx.actions, "--runtime-jars", runtime_jars))
+        arguments.append(_jar_list_args(ctx.actions, "--deployment-jars", deployment_jars))
+    if ctx.attr.symlink_libraries:
+        library_links, link_args = _link_libraries(ctx, runtime_jars)
+        arguments.append(link_args)
 
     # All input files
-    inputs = depset(
-        direct = application_jars,
-        transitive = [
-            depset(runtime_jars),
-            depset(deployment_jars),
-        ],
-    )
+    inputs = depset(direct_inputs, transitive = [
+        application_jars,
+        runtime_jars,
+        deployment_jars,
+    ])
 
     # Run augmentor
-    ctx.actions.run(
-        outputs = [output_dir],
-        inputs = inputs,
-        executable = ctx.executable._augmentor,
-        arguments = [args],
+    run_kwargs = dict(
+        outputs = outputs,
+        arguments = arguments,
         mnemonic = "QuarkusBootstrap",
         progress_message = "Running Quarkus augmentation for %s" % ctx.label.name,
+        # Reserve what the multi-threaded augmentation JVM actually uses so
+        # Bazel does not oversubscribe the machine with parallel actions.
+        resource_set = _AUGMENT_RESOURCE_SETS[(ctx.attr.augment_cpus, ctx.attr.augment_memory_mb)],
+        unused_inputs_list = unused_inputs,
     )
+    if ctx.attr.augmentor_cds:
+        # Bootstrap classes come pre-parsed from the trained CDS archive.
+        # -Xshare:auto falls back to regular class loading if the archive
+        # does not match this JVM or class path (e.g. other JAR mtimes on a
+        # remote executor) instead of failing the action; the JVM's CDS
+        # warnings stay on so a rejected archive shows in the action log.
+        archive = ctx.file._augmentor_cds
+        _run_augmentor_jvm(
+            ctx,
+            jvm_flags = _augment_jvm_flags(ctx) + [
+                "-XX:SharedArchiveFile=" + archive.path,
+                "-Xshare:auto",
+            ],
+            inputs = depset([archive], transitive = [inputs]),
+            **run_kwargs
+        )
+    else:
+        jvm_flags = ctx.actions.args()
+        jvm_flags.add_all(_augment_jvm_flags(ctx), format_each = "--jvm_flag=%s")
+        run_kwargs["arguments"] = [jvm_flags] + arguments
+        ctx.actions.run(
+            inputs = inputs,
+            executable = ctx.executable._augmentor,
+            **run_kwargs
+        )
+
+    # Digests of all inputs and config values, to explain cache misses with
+    # //v2-bootstrap/tools:input_manifest_diff. A separate action on the same
+    # arguments: it hashes every input, including those augmentation reports
+    # as unused, and only runs when the input_manifest group is requested.
+    input_manifest = None
+    if ctx.attr.write_input_manifest:
+        input_manifest = ctx.actions.declare_file(ctx.label.name + "-inputs.manifest")
+        manifest_args = ctx.actions.args()
+        manifest_args.add("--input-manifest", input_manifest.path)
+        ctx.actions.run(
+            inputs = inputs,
+            outputs = [input_manifest],
+            executable = ctx.executable._input_manifest,
+            arguments = arguments + [manifest_args],
+            mnemonic = "QuarkusInputManifest",
+            progress_message = "Writing augmentation input manifest for %s" % ctx.label.name,
+        )
 
     # Create output JAR reference for downstream targets
-    # The main JAR is in output_dir/quarkus-run.jar
+    # The main JAR is in <output>/quarkus-run.jar
     return [
         DefaultInfo(
-            files = depset([output_dir]),
-            runfiles = ctx.runfiles(files = [output_dir]),
+            files = depset([app_output] + library_links),
+            runfiles = ctx.runfiles(files = [app_output] + library_links),
+        ),
+        OutputGroupInfo(
+            prune_report = depset([prune_report] if prune_report else []),
+            class_load_order = depset([class_load_order] if class_load_order else []),
+            bundle_report = depset([bundle_report] if bundle_report else []),
+            input_manifest = depset([input_manifest] if input_manifest else []),
+            _validation = depset([validation] if validation else []),
         ),
     ]
 
 quarkus_bootstrap = rule(
     implementation = _quarkus_bootstrap_impl,
-    attrs = {
+    attrs = dict({
         "application": attr.label_list(
             providers = [JavaInfo],
             mandatory = True,
@@ -102,6 +708,12 @@ quarkus_bootstrap = rule(
             default = [],
             doc = "Deployment dependencies (Quarkus *-deployment modules)",
         ),
+        "curated_deps": attr.label(
+            providers = [QuarkusCuratedDepsInfo],
+            doc = """Pre-curated dependencies (quarkus_curated_deps). Replaces
+            runtime_deps/deployment_deps and moves dependency curation into
+            its own, application-independent cached action.""",
+        ),
         "application_name": attr.string(
             mandatory = True,
             doc = "Application name",
@@ -110,25 +722,162 @@ quarkus_bootstrap = rule(
             default = "io.quarkus.runner.GeneratedMain",
             doc = "Main class (usually auto-generated by Quarkus)",
         ),
+        "build_properties": attr.string_dict(
+            default = {},
+            doc = """Build-time properties passed to QuarkusBootstrap as build
+            system properties, e.g. {"quarkus.arc.remove-unused-beans": "all"}.""",
+        ),
+        "prune_unused_jars": attr.string(
+            default = "off",
+            values = ["off", "report", "exclude"],
+            doc = """Unused dependency analysis of lib/main.
+            'report' writes <name>-prune-report.txt (output group 'prune_report'),
+            'exclude' additionally leaves unreachable JARs out of lib/main.
+            JARs with resources (webjars, config, native libraries) are kept
+            even without reachable classes.""",
+        ),
+        "prune_safelist": attr.string_list(
+            default = [],
+            doc = "JAR file name substrings never pruned (dynamically loaded libraries)",
+        ),
+        "output_format": attr.string(
+            default = "directory",
+            values = ["directory", "zip"],
+            doc = """'directory' outputs <name>-quarkus-app/ as a tree artifact.
+            'zip' outputs a single deterministic, uncompressed
+            <name>-quarkus-app.zip instead, so caches and sandboxes handle
+            one file rather than every JAR in lib/main.""",
+        ),
+        "lib_layout": attr.string(
+            default = "fast-jar",
+            values = ["fast-jar", "merged"],
+            doc = """Layout of lib/main. 'merged' replaces the per-dependency
+            JARs with a few uncompressed (STORED) bundles, merging service
+            files and dropping duplicate entries deterministically, and writes
+            <name>-bundle-report.txt (output group 'bundle_report').""",
+        ),
+        "class_load_order": attr.label(
+            allow_single_file = True,
+            doc = """Recorded class-load order (one class per line, e.g. the
+            'class_load_order' output group of a training build). app/ and
+            generated bytecode JARs are repacked in this order and
+            preload-jars.txt is written for the runner.""",
+        ),
+        "train_class_load_order": attr.bool(
+            default = False,
+            doc = """Start the augmented application once with -Xlog:class+load
+            to record the class-load order, then lay out the output with it.
+            The order is written to <name>-class-load-order.txt (output group
+            'class_load_order') so it can be checked in as class_load_order.""",
+        ),
+        "track_unused_inputs": attr.bool(
+            default = False,
+            doc = """Record which deployment-only JARs augmentation used and
+            declare the rest as the action's unused_inputs_list, so changing
+            them does not re-run augmentation. A JAR is listed only when none
+            of its classes was defined and it holds no resources (service
+            files, config, ...); extension deployment modules, runtime and
+            application JARs always count as used. Off by default: a JAR
+            wrongly listed as unused lets a stale result be reused.""",
+        ),
+        "write_input_manifest": attr.bool(
+            default = True,
+            doc = """Declare <name>-inputs.manifest (output group 'input_manifest')
+            with the SHA-256 of every input JAR and all config values. Diff
+            two of them with //v2-bootstrap/tools:input_manifest_diff to see
+            why augmentation re-ran or missed the remote cache. Written by a
+            separate action that only runs when the output group is
+            requested, never by the augmentation action itself.""",
+        ),
+        "symlink_libraries": attr.bool(
+            default = False,
+            doc = """Leave lib/main JARs that are byte-identical to a runtime
+            JAR out of <name>-quarkus-app/ and declare them as symlinks to the
+            input JARs in <name>-quarkus-libs/ instead (ctx.actions.symlink).
+            quarkus-application.dat refers to the symlinks, so only generated
+            files are produced, hashed and cached by augmentation. Requires the
+            fast-jar directory output without exclude pruning or training.
+            Costs analysis time: the runtime JAR depset is flattened and one
+            symlink is declared per runtime JAR, including JARs that do not
+            end up in lib/main.""",
+        ),
+        "augment_cpus": attr.int(
+            default = 2,
+            values = [1, 2, 4, 8],
+            doc = """CPUs reserved for the augmentation action (Bazel
+            resource_set). The augmentor JVM gets -XX:ActiveProcessorCount to
+            match, which sizes GC, JIT and ForkJoin threads; the Quarkus build
+            step executor keeps its fixed pool size.""",
+        ),
+        "augment_memory_mb": attr.int(
+            default = 2048,
+            values = [1024, 2048, 4096],
+            doc = """Memory (MB) reserved for the augmentation action. The
+            augmentor JVM gets -Xmx of three quarters of it.""",
+        ),
+        "augmentor_cds": attr.bool(
+            default = False,
+            doc = """Run the augmentor JVM with the AppCDS archive of its own
+            classes (//v2-bootstrap/tools:augmentor_cds, trained by a full
+            augmentation of a small REST sample at build time). Only JDK and
+            bootstrap classes are archived, not the build steps loaded from
+            deployment JARs. Opt-in until measured for the application: the
+            training augmentation runs once per exec configuration. The JVM
+            warns about and ignores an archive that does not match it.""",
+        ),
+        "_augmentor_cds": attr.label(
+            default = Label("//v2-bootstrap/tools:augmentor_cds"),
+            allow_single_file = [".jsa"],
+            cfg = "exec",
+            doc = "AppCDS archive of the augmentor (quarkus_augmentor_cds)",
+        ),
         "_augmentor": attr.label(
             default = Label("//v2-bootstrap/tools:bootstrap_augmentor"),
             executable = True,
             cfg = "exec",
             doc = "Bootstrap augmentor tool",
         ),
-    },
+        "_input_manifest": attr.label(
+            default = Label("//v2-bootstrap/tools:input_manifest"),
+            executable = True,
+            cfg = "exec",
+            doc = "Input manifest writer (write_input_manifest)",
+        ),
+    }, **dict(_AUGMENTOR_JVM_ATTRS, **_VALIDATION_ATTRS)),
     doc = """
     Runs Quarkus augmentation using QuarkusBootstrap API.
 
     This rule takes compiled application code and runs the full Quarkus
     augmentation pipeline, including:
-    - Jandex indexing
+    - Jandex indexing (skipped for application JARs that embed
+      META-INF/jandex.idx, see quarkus_jandex_jar)
     - CDI bean discovery and proxy generation
     - REST endpoint registration
     - Configuration processing
     - Bytecode optimization
 
-    Output is a directory containing the complete quarkus-app structure.
+    Output is a directory containing the complete quarkus-app structure,
+    or with output_format = "zip" a single STORED quarkus-app.zip that the
+    quarkus_application runner unpacks once into a local cache. With
+    symlink_libraries, unchanged lib/main JARs are symlinks to the input
+    JARs next to the directory rather than copies inside it.
+
+    Before augmentation, a QuarkusValidate action checks that every runtime
+    extension has a deployment module of the matching version and fails
+    fast with the list of problems (disable with validate_extensions).
+
+    With prune_unused_jars set, class-level reachability is computed from the
+    application and generated bytecode (plus service providers and string
+    literals) and lib/main JARs with no reachable class are reported or
+    excluded. Extension runtime JARs and prune_safelist matches are kept.
+
+    With augmentor_cds = True, the augmentor JVM starts from the AppCDS
+    archive trained by //v2-bootstrap/tools:augmentor_cds.
+
+    With class_load_order or train_class_load_order, app/ and
+    quarkus/generated-bytecode.jar entries are written in first-use order and
+    preload-jars.txt lists all JARs in first-use order, so a cold start reads
+    them sequentially from the page cache.
 
     Example:
         quarkus_bootstrap(
@@ -0,0 +1,34 @@
+package io.quarkus.bazel.cds;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * REST endpoint of the augmentor CDS training sample.
+ *
+ * Never run: augmenting it makes the augmentor load the REST, Vert.x HTTP
+ * and ArC build steps that typical applications go through.
+ */
+@Path("/sample")
+public class SampleResource {
+
+    @Inject
+    SampleService service;
+
+    @GET
+    @Produces(MediaType.TEXT_PLAIN)
+    public String sample() {
+        return service.describe("sample");
+    }
+
+    @GET
+    @Path("/{name}")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String named(@PathParam("name") String name) {
+        return service.describe(name);
+    }
+}
@@ -0,0 +1,39 @@
+package io.quarkus.bazel.cds;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.RequestScoped;
+import jakarta.enterprise.inject.Produces;
+
+/**
+ * CDI bean of the augmentor CDS training sample, with a producer method so
+ * bean discovery, client proxy and producer generation are all exercised.
+ */
+@ApplicationScoped
+public class SampleService {
+
+    public String describe(String name) {
+        return prefix().value + name;
+    }
+
+    Prefix prefix() {
+        return new Prefix("sample: ");
+    }
+
+    @Produces
+    @RequestScoped
+    Prefix requestPrefix() {
+        return prefix();
+    }
+
+    public static class Prefix {
+        final String value;
+
+        public Prefix() {
+            this("");
+        }
+
+        Prefix(String value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Packs a quarkus-app directory into a single deterministic archive.
+ *
+ * A tree artifact with hundreds of JARs costs Bazel and the remote cache one
+ * digest, upload and materialization per file; the archive is one file.
+ * Entries are STORED (the JARs are already compressed, and stored entries
+ * can be read in place), sorted by path and carry a fixed timestamp, so the
+ * same quarkus-app always produces the same bytes.
+ */
+public class AppArchive {
+
+    /**
+     * Write every file and directory under appDir to zip.
+     */
+    public static void write(Path appDir, Path zip) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (Stream<Path> walk = Files.walk(appDir)) {
+            walk.filter(path -> !path.equals(appDir)).forEach(paths::add);
+        }
+        List<String> names = new ArrayList<>();
+        for (Path path : paths) {
+            String name = appDir.relativize(path).toString().replace('\\', '/');
+            names.add(Files.isDirectory(path) ? name + "/" : name);
+        }
+        names.sort(null);
+
+        if (zip.getParent() != null) {
+            Files.createDirectories(zip.getParent());
+        }
+        try (OutputStream fos = Files.newOutputStream(zip);
+             ZipOutputStream out = new ZipOutputStream(fos)) {
+            out.setMethod(ZipOutputStream.STORED);
+            for (String name : names) {
+                byte[] data = name.endsWith("/") ? new byte[0] : Files.readAllBytes(appDir.resolve(name));
+                StoredEntries.write(out, name, data);
+            }
+        }
+    }
+
+    /**
+     * Unpack an archive written by {@link #write} into targetDir.
+     */
+    public static void extract(Path zip, Path targetDir) throws IOException {
+        Path root = targetDir.toAbsolutePath().normalize();
+        try (ZipFile file = new ZipFile(zip.toFile())) {
+            Enumeration<? extends ZipEntry> entries = file.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                Path target = root.resolve(entry.getName()).normalize();
+                if (!target.startsWith(root)) {
+                    throw new IOException("Entry outside of target directory: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try (InputStream in = file.getInputStream(entry)) {
+                        Files.copy(in, target);
+                    }
+                }
+            }
+        }
+    }
+}
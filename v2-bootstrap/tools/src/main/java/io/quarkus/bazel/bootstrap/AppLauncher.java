@@ -0,0 +1,42 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the command line that starts an augmented quarkus-app directory.
+ *
+ * Uses the same class path and entry point as the quarkus_application
+ * runner script, so training and benchmark runs behave like `bazel run`.
+ */
+public class AppLauncher {
+
+    static final String ENTRY_POINT = "io.quarkus.bootstrap.runner.QuarkusEntryPoint";
+
+    /**
+     * Java executable of the current JVM (falls back to java.home).
+     */
+    static String javaExecutable() {
+        return ProcessHandle.current().info().command()
+            .orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+    }
+
+    /**
+     * Command starting the application in appDir with the given JVM flags.
+     */
+    static List<String> command(Path appDir, List<String> jvmFlags) {
+        List<String> command = new ArrayList<>();
+        command.add(javaExecutable());
+        command.addAll(jvmFlags);
+        command.add("-cp");
+        command.add(String.join(File.pathSeparator,
+            appDir.resolve("lib/boot/*").toAbsolutePath().toString(),
+            appDir.resolve("lib/main/*").toAbsolutePath().toString(),
+            appDir.resolve("quarkus-run.jar").toAbsolutePath().toString()));
+        command.add(ENTRY_POINT);
+        return command;
+    }
+}
@@ -0,0 +1,130 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The class loading lists of quarkus-application.dat.
+ *
+ * SerializedApplication.write only takes parent-first JARs (it collects
+ * their packages) and the non-existent resources, so a rewritten class
+ * path would lose what Quarkus originally recorded. This reads both lists
+ * from the original file and splices them into the rewritten one.
+ *
+ * Layout (SerializedApplication, version 2): magic, version, main class,
+ * class path entries (path, optional manifest info, resource directories),
+ * parent-first packages, non-existent resources, directly indexed resources.
+ */
+final class ApplicationData {
+
+    private static final int MAGIC = 0xF0315432;
+    private static final int VERSION = 2;
+    private static final int MANIFEST_FIELDS = 6;
+
+    private final List<String> parentFirstPackages;
+    private final List<String> nonExistentResources;
+
+    private ApplicationData(List<String> parentFirstPackages, List<String> nonExistentResources) {
+        this.parentFirstPackages = parentFirstPackages;
+        this.nonExistentResources = nonExistentResources;
+    }
+
+    List<String> getParentFirstPackages() {
+        return parentFirstPackages;
+    }
+
+    List<String> getNonExistentResources() {
+        return nonExistentResources;
+    }
+
+    /**
+     * Read the lists of an existing quarkus-application.dat, or return null
+     * when the file is missing or in a format this does not know.
+     */
+    static ApplicationData read(Path data) throws IOException {
+        if (!Files.exists(data)) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(data)));
+            skipClassPath(in);
+            List<String> parentFirst = readStrings(in);
+            List<String> nonExistent = readStrings(in);
+            return new ApplicationData(parentFirst, nonExistent);
+        } catch (IOException | IllegalStateException e) {
+            System.out.println("  WARNING: Cannot read class loading lists of " + data + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replace the (empty) lists of freshly written data with these lists.
+     */
+    byte[] applyTo(byte[] written) throws IOException {
+        ByteArrayInputStream bytes = new ByteArrayInputStream(written);
+        DataInputStream in = new DataInputStream(bytes);
+        skipClassPath(in);
+        int listsStart = written.length - bytes.available();
+        readStrings(in);
+        readStrings(in);
+        int listsEnd = written.length - bytes.available();
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(written.length);
+        result.write(written, 0, listsStart);
+        DataOutputStream out = new DataOutputStream(result);
+        writeStrings(out, parentFirstPackages);
+        writeStrings(out, nonExistentResources);
+        out.flush();
+        result.write(written, listsEnd, written.length - listsEnd);
+        return result.toByteArray();
+    }
+
+    private static void skipClassPath(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IllegalStateException("not a quarkus-application.dat");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("unsupported version " + version);
+        }
+        in.readUTF();
+        int paths = in.readUnsignedShort();
+        for (int i = 0; i < paths; i++) {
+            in.readUTF();
+            if (in.readBoolean()) {
+                for (int field = 0; field < MANIFEST_FIELDS; field++) {
+                    if (in.readBoolean()) {
+                        in.readUTF();
+                    }
+                }
+            }
+            int dirs = in.readUnsignedShort();
+            for (int dir = 0; dir < dirs; dir++) {
+                in.readUTF();
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(in.readUTF());
+        }
+        return strings;
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeShort(strings.size());
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import io.quarkus.maven.dependency.ResolvedDependencyBuilder;
 import io.quarkus.paths.PathList;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -24,11 +25,17 @@ import java.util.Set;
  * 3. Add deployment dependencies with DEPLOYMENT_CP flag
  * 4. Mark Quarkus extensions with RUNTIME_EXTENSION_ARTIFACT flag
  * 5. Link runtime extensions to deployment modules
+ *
+ * Steps 2-5 only depend on dependency JARs and are available separately
+ * via {@link #curate(List, List)} so they can run in their own cached action.
  */
 public class ApplicationModelFactory {
 
     /**
      * Create ApplicationModel from AugmentationConfig.
+     *
+     * Uses the pre-curated dependency set when the config carries one,
+     * otherwise curates the runtime/deployment JARs in-process.
      */
     public static ApplicationModel create(AugmentationConfig config) throws Exception {
         ApplicationModelBuilder builder = new ApplicationModelBuilder();
@@ -36,25 +43,54 @@ public class ApplicationModelFactory {
         // 1. Set application artifact
         setApplicationArtifact(builder, config);
 
-        // 2. Detect extensions in runtime JARs
-        List<ExtensionInfo> extensions = ExtensionDetector.detect(config.getRuntimeJars());
+        // 2. Resolve dependencies (detect extensions, merge flags)
+        CuratedDependencies curated = config.getCuratedDependencies();
+        if (curated != null) {
+            System.out.println("  Using curated dependencies (" + curated.getEntries().size() + " entries)");
+        } else {
+            curated = curate(config.getRuntimeJars(), config.getDeploymentJars());
+        }
+
+        // 3. Add all dependencies to the model
+        for (CuratedDependencies.Entry entry : curated.getEntries()) {
+            builder.addDependency(ResolvedDependencyBuilder.newInstance()
+                .setGroupId(entry.getGroupId())
+                .setArtifactId(entry.getArtifactId())
+                .setVersion(entry.getVersion())
+                .setType("jar")
+                .setResolvedPaths(PathList.of(entry.getPath()))
+                .setFlags(entry.getFlags()));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Curate runtime and deployment JARs into a flagged dependency set.
+     *
+     * This only depends on the dependency JARs, not on application code.
+     */
+    public static CuratedDependencies curate(List<Path> runtimeJars, List<Path> deploymentJars) {
+        // 1. Detect extensions in runtime JARs
+        List<ExtensionInfo> extensions = ExtensionDetector.detect(runtimeJars);
         System.out.println("  Detected " + extensions.size() + " Quarkus extensions:");
         for (ExtensionInfo ext : extensions) {
             System.out.println("    - " + ext.getArtifactId() + " (" + ext.getJarPath().getFileName() + ")");
         }
 
-        // 3. Build set of extension artifact IDs for quick lookup
+        // 2. Build set of extension artifact IDs for quick lookup
         Set<String> extensionArtifactIds = new HashSet<>();
         for (ExtensionInfo ext : extensions) {
             extensionArtifactIds.add(ext.getArtifactId());
         }
 
-        // 4. Add runtime dependencies (cả runtime và deployment)
+        // 3. Add runtime dependencies (cả runtime và deployment)
         // Quarkus cần thấy TẤT CẢ JARs trong model
         System.out.println("  Adding dependencies:");
-        addAllDependencies(builder, config.getRuntimeJars(), config.getDeploymentJars(), extensionArtifactIds);
+        List<CuratedDependencies.Entry> entries = new ArrayList<>();
+        addAllDependencies(entries, runtimeJars, deploymentJars, extensionArtifactIds);
 
-        return builder.build();
+        return new CuratedDependencies(entries);
     }
 
     private static void setApplicationArtifact(ApplicationModelBuilder builder, AugmentationConfig config) {
@@ -71,7 +107,7 @@ public class ApplicationModelFactory {
         builder.setAppArtifact(appBuilder);
     }
 
-    private static void addAllDependencies(ApplicationModelBuilder builder,
+    private static void addAllDependencies(List<CuratedDependencies.Entry> entries,
                                            List<Path> runtimeJars,
                                            List<Path> deploymentJars,
                                            Set<String> extensionArtifactIds) {
@@ -121,13 +157,8 @@ public class ApplicationModelFactory {
                 System.out.println("    [EXT-RT] " + coords.artifactId + " (flags=" + flags + ")");
             }
 
-            builder.addDependency(ResolvedDependencyBuilder.newInstance()
-                .setGroupId(coords.groupId)
-                .setArtifactId(coords.artifactId)
-                .setVersion(coords.version)
-                .setType("jar")
-                .setResolvedPaths(PathList.of(jar))
-                .setFlags(flags));
+            entries.add(new CuratedDependencies.Entry(
+                coords.groupId, coords.artifactId, coords.version, jar, flags));
 
             runtimeCount++;
         }
@@ -148,13 +179,8 @@ public class ApplicationModelFactory {
             addedArtifacts.add(key);
 
             // Deployment-only deps need DEPLOYMENT_CP flag
-            builder.addDependency(ResolvedDependencyBuilder.newInstance()
-                .setGroupId(coords.groupId)
-                .setArtifactId(coords.artifactId)
-                .setVersion(coords.version)
-                .setType("jar")
-                .setResolvedPaths(PathList.of(jar))
-                .setFlags(DependencyFlags.DEPLOYMENT_CP));
+            entries.add(new CuratedDependencies.Entry(
+                coords.groupId, coords.artifactId, coords.version, jar, DependencyFlags.DEPLOYMENT_CP));
 
             deploymentCount++;
         }
@@ -5,7 +5,11 @@ import io.quarkus.bootstrap.model.PathsCollection;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
 
 /**
  * Configuration for Quarkus augmentation.
@@ -16,6 +20,12 @@ import java.util.List;
  * - Deployment JARs (Quarkus deployment modules)
  * - Output directory
  * - Application metadata
+ * - Build-time Quarkus properties (build system properties)
+ * - Optional unused dependency pruning settings
+ * - Optional class-load order layout settings
+ * - lib/main layout (fast-jar or merged STORED bundles)
+ * - Optional input JARs that Bazel symlinks next to the output
+ * - Optional input manifest (digests of all inputs, for cache-miss diffs)
  */
 public class AugmentationConfig {
 
@@ -25,6 +35,20 @@ public class AugmentationConfig {
     private final Path outputDir;
     private final String applicationName;
     private final String mainClass;
+    private final Map<String, String> buildProperties;
+    private final UnusedJarAnalyzer.Mode pruneMode;
+    private final List<String> pruneSafelist;
+    private final Path pruneReport;
+    private final CuratedDependencies curatedDependencies;
+    private final Path classLoadOrder;
+    private final Path trainedClassLoadOrder;
+    private final LibraryBundler.Layout libraryLayout;
+    private final Path bundleReport;
+    private final Path unusedInputsList;
+    private final Path outputZip;
+    private final Map<Path, String> linkedLibraries;
+    private final Path linkedLibrariesDir;
+    private final Path inputManifest;
 
     private AugmentationConfig(Builder builder) {
         this.applicationJars = Collections.unmodifiableList(new ArrayList<>(builder.applicationJars));
@@ -33,6 +57,51 @@ public class AugmentationConfig {
         this.outputDir = builder.outputDir;
         this.applicationName = builder.applicationName;
         this.mainClass = builder.mainClass;
+        this.buildProperties = Collections.unmodifiableMap(new TreeMap<>(builder.buildProperties));
+        this.pruneMode = builder.pruneMode;
+        this.pruneSafelist = Collections.unmodifiableList(new ArrayList<>(builder.pruneSafelist));
+        this.pruneReport = builder.pruneReport;
+        this.curatedDependencies = builder.curatedDependencies;
+        this.classLoadOrder = builder.classLoadOrder;
+        this.trainedClassLoadOrder = builder.trainedClassLoadOrder;
+        this.libraryLayout = builder.libraryLayout;
+        this.bundleReport = builder.bundleReport;
+        this.unusedInputsList = builder.unusedInputsList;
+        this.outputZip = builder.outputZip;
+        this.linkedLibraries = Collections.unmodifiableMap(new LinkedHashMap<>(builder.linkedLibraries));
+        this.linkedLibrariesDir = builder.linkedLibrariesDir;
+        this.inputManifest = builder.inputManifest;
+    }
+
+    private AugmentationConfig(AugmentationConfig other, Path outputDir) {
+        this.applicationJars = other.applicationJars;
+        this.runtimeJars = other.runtimeJars;
+        this.deploymentJars = other.deploymentJars;
+        this.outputDir = outputDir;
+        this.applicationName = other.applicationName;
+        this.mainClass = other.mainClass;
+        this.buildProperties = other.buildProperties;
+        this.pruneMode = other.pruneMode;
+        this.pruneSafelist = other.pruneSafelist;
+        this.pruneReport = other.pruneReport;
+        this.curatedDependencies = other.curatedDependencies;
+        this.classLoadOrder = other.classLoadOrder;
+        this.trainedClassLoadOrder = other.trainedClassLoadOrder;
+        this.libraryLayout = other.libraryLayout;
+        this.bundleReport = other.bundleReport;
+        this.unusedInputsList = other.unusedInputsList;
+        this.outputZip = other.outputZip;
+        this.linkedLibraries = other.linkedLibraries;
+        this.linkedLibrariesDir = other.linkedLibrariesDir;
+        this.inputManifest = other.inputManifest;
+    }
+
+    /**
+     * This configuration with the quarkus-app directory at outputDir, e.g. a
+     * temporary staging directory for the single-archive output.
+     */
+    AugmentationConfig withOutputDir(Path outputDir) {
+        return new AugmentationConfig(this, outputDir);
     }
 
     public List<Path> getApplicationJars() {
@@ -47,6 +116,10 @@ public class AugmentationConfig {
         return deploymentJars;
     }
 
+    /**
+     * The quarkus-app directory. Null for the single-archive output until
+     * a staging directory is set (withOutputDir).
+     */
     public Path getOutputDir() {
         return outputDir;
     }
@@ -59,6 +132,112 @@ public class AugmentationConfig {
         return mainClass;
     }
 
+    /**
+     * Build-time properties (e.g. quarkus.arc.remove-unused-beans), sorted by key.
+     */
+    public Map<String, String> getBuildProperties() {
+        return buildProperties;
+    }
+
+    /**
+     * Build properties as java.util.Properties for QuarkusBootstrap.
+     */
+    public Properties getBuildSystemProperties() {
+        Properties properties = new Properties();
+        properties.putAll(buildProperties);
+        return properties;
+    }
+
+    public UnusedJarAnalyzer.Mode getPruneMode() {
+        return pruneMode;
+    }
+
+    /**
+     * JAR file name substrings that are never pruned (dynamically loaded libraries).
+     */
+    public List<String> getPruneSafelist() {
+        return pruneSafelist;
+    }
+
+    /**
+     * Where to write the unused dependency report, or null for stdout only.
+     */
+    public Path getPruneReport() {
+        return pruneReport;
+    }
+
+    /**
+     * Pre-curated dependency set from a separate curation action, or null
+     * if dependencies should be curated from the runtime/deployment JARs.
+     */
+    public CuratedDependencies getCuratedDependencies() {
+        return curatedDependencies;
+    }
+
+    /**
+     * Previously recorded class-load order to lay out the output with, or null.
+     */
+    public Path getClassLoadOrder() {
+        return classLoadOrder;
+    }
+
+    /**
+     * Where to write the class-load order recorded by a training run of the
+     * augmented application, or null to skip training.
+     */
+    public Path getTrainedClassLoadOrder() {
+        return trainedClassLoadOrder;
+    }
+
+    public LibraryBundler.Layout getLibraryLayout() {
+        return libraryLayout;
+    }
+
+    /**
+     * Where to write the lib/main bundle report, or null for stdout only.
+     */
+    public Path getBundleReport() {
+        return bundleReport;
+    }
+
+    /**
+     * Where to write Bazel's unused_inputs_list, or null to skip input tracking.
+     */
+    public Path getUnusedInputsList() {
+        return unusedInputsList;
+    }
+
+    /**
+     * Single-archive output (quarkus-app.zip), or null to only write outputDir.
+     * When set, outputDir is a temporary staging directory outside Bazel's
+     * output tree.
+     */
+    public Path getOutputZip() {
+        return outputZip;
+    }
+
+    /**
+     * Input JARs with a Bazel-declared symlink (input -> symlink file name).
+     * lib/main JARs identical to one of them are left out of the output.
+     */
+    public Map<Path, String> getLinkedLibraries() {
+        return linkedLibraries;
+    }
+
+    /**
+     * Directory of the library symlinks, relative to the quarkus-app root.
+     */
+    public Path getLinkedLibrariesDir() {
+        return linkedLibrariesDir;
+    }
+
+    /**
+     * Where to write the input manifest (see InputManifest), or null to skip it.
+     */
+    public Path getInputManifest() {
+        return inputManifest;
+    }
+
     /**
      * Get application root as PathsCollection for QuarkusBootstrap.
      */
@@ -87,6 +266,20 @@ public class AugmentationConfig {
         private Path outputDir;
         private String applicationName = "application";
         private String mainClass = "io.quarkus.runner.GeneratedMain";
+        private Map<String, String> buildProperties = new TreeMap<>();
+        private UnusedJarAnalyzer.Mode pruneMode = UnusedJarAnalyzer.Mode.OFF;
+        private List<String> pruneSafelist = new ArrayList<>();
+        private Path pruneReport;
+        private CuratedDependencies curatedDependencies;
+        private Path classLoadOrder;
+        private Path trainedClassLoadOrder;
+        private LibraryBundler.Layout libraryLayout = LibraryBundler.Layout.FAST_JAR;
+        private Path bundleReport;
+        private Path unusedInputsList;
+        private Path outputZip;
+        private Map<Path, String> linkedLibraries = new LinkedHashMap<>();
+        private Path linkedLibrariesDir;
+        private Path inputManifest;
 
         public Builder addApplicationJar(Path jar) {
             this.applicationJars.add(jar);
@@ -133,9 +326,98 @@ public class AugmentationConfig {
             return this;
         }
 
+        public Builder addBuildProperty(String key, String value) {
+            this.buildProperties.put(key, value);
+            return this;
+        }
+
+        public Builder setPruneMode(UnusedJarAnalyzer.Mode pruneMode) {
+            this.pruneMode = pruneMode;
+            return this;
+        }
+
+        public Builder addPruneSafelist(List<String> patterns) {
+            this.pruneSafelist.addAll(patterns);
+            return this;
+        }
+
+        public Builder setPruneReport(Path pruneReport) {
+            this.pruneReport = pruneReport;
+            return this;
+        }
+
+        /**
+         * Use a pre-curated dependency set; its JARs become the runtime and
+         * deployment JARs of this configuration.
+         */
+        public Builder setCuratedDependencies(CuratedDependencies curatedDependencies) {
+            this.curatedDependencies = curatedDependencies;
+            this.runtimeJars.addAll(curatedDependencies.getRuntimeJars());
+            this.deploymentJars.addAll(curatedDependencies.getDeploymentJars());
+            return this;
+        }
+
+        public Builder setClassLoadOrder(Path classLoadOrder) {
+            this.classLoadOrder = classLoadOrder;
+            return this;
+        }
+
+        public Builder setTrainedClassLoadOrder(Path trainedClassLoadOrder) {
+            this.trainedClassLoadOrder = trainedClassLoadOrder;
+            return this;
+        }
+
+        public Builder setLibraryLayout(LibraryBundler.Layout libraryLayout) {
+            this.libraryLayout = libraryLayout;
+            return this;
+        }
+
+        public Builder setBundleReport(Path bundleReport) {
+            this.bundleReport = bundleReport;
+            return this;
+        }
+
+        public Builder setUnusedInputsList(Path unusedInputsList) {
+            this.unusedInputsList = unusedInputsList;
+            return this;
+        }
+
+        public Builder setOutputZip(Path outputZip) {
+            this.outputZip = outputZip;
+            return this;
+        }
+
+        public Builder addLinkedLibrary(Path input, String linkName) {
+            this.linkedLibraries.putIfAbsent(input, linkName);
+            return this;
+        }
+
+        public Builder setLinkedLibrariesDir(Path linkedLibrariesDir) {
+            this.linkedLibrariesDir = linkedLibrariesDir;
+            return this;
+        }
+
+        public Builder setInputManifest(Path inputManifest) {
+            this.inputManifest = inputManifest;
+            return this;
+        }
+
         public AugmentationConfig build() {
-            if (outputDir == null) {
-                throw new IllegalStateException("outputDir is required");
+            if (outputDir == null && outputZip == null) {
+                throw new IllegalStateException("outputDir or outputZip is required");
+            }
+            if (classLoadOrder != null && trainedClassLoadOrder != null) {
+                throw new IllegalStateException("class-load order must be either recorded or trained, not both");
+            }
+            if (!linkedLibraries.isEmpty()) {
+                if (linkedLibrariesDir == null) {
+                    throw new IllegalStateException("linked libraries require a symlink directory");
+                }
+                if (outputZip != null || libraryLayout != LibraryBundler.Layout.FAST_JAR
+                        || pruneMode == UnusedJarAnalyzer.Mode.EXCLUDE || trainedClassLoadOrder != null) {
+                    throw new IllegalStateException("linked libraries require the fast-jar directory output"
+                        + " without pruning or class-load order training");
+                }
             }
             return new AugmentationConfig(this);
         }
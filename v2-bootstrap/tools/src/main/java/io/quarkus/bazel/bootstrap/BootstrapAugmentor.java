@@ -6,7 +6,12 @@ import io.quarkus.bootstrap.app.CuratedApplication;
 import io.quarkus.bootstrap.app.QuarkusBootstrap;
 import io.quarkus.bootstrap.model.ApplicationModel;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Main entry point for Quarkus augmentation using QuarkusBootstrap API.
@@ -20,6 +25,8 @@ import java.nio.file.Path;
  * 3. Create QuarkusBootstrap with existing model
  * 4. Bootstrap and run augmentation
  * 5. Output augmented application
+ * 6. Optionally lay out the output in class-load order
+ * 7. Optionally report unused inputs (Bazel unused_inputs_list)
  */
 public class BootstrapAugmentor {
 
@@ -30,8 +37,31 @@ public class BootstrapAugmentor {
 
         // 1. Parse arguments
         AugmentationConfig config = ConfigParser.parse(args);
+
+        // The single-archive output is staged in a temporary directory, so
+        // nothing undeclared is left in Bazel's output tree, even on failure
+        Path staging = null;
+        if (config.getOutputZip() != null) {
+            staging = Files.createTempDirectory("quarkus-app-staging");
+            config = config.withOutputDir(staging.resolve("quarkus-app"));
+        }
+        try {
+            augment(config);
+        } finally {
+            if (staging != null) {
+                OutputHandler.deleteDirectory(staging);
+            }
+        }
+    }
+
+    private static void augment(AugmentationConfig config) throws Exception {
         printConfig(config);
 
+        // Record class definitions to find unused deployment JARs
+        InputUsageTracker usageTracker = config.getUnusedInputsList() != null
+            ? InputUsageTracker.start()
+            : null;
+
         // 2. Build ApplicationModel
         System.out.println("Building ApplicationModel...");
         ApplicationModel appModel = ApplicationModelFactory.create(config);
@@ -45,9 +75,18 @@ public class BootstrapAugmentor {
         System.out.println("Running augmentation...");
         runAugmentation(bootstrap, config);
 
+        if (usageTracker != null) {
+            writeUnusedInputs(usageTracker, config);
+        }
+
+        // 5. Optionally pack the output into one archive
+        if (config.getOutputZip() != null) {
+            OutputHandler.writeArchive(config);
+        }
+
         System.out.println();
         System.out.println("Augmentation complete!");
-        System.out.println("Output: " + config.getOutputDir());
+        System.out.println("Output: " + (config.getOutputZip() != null ? config.getOutputZip() : config.getOutputDir()));
     }
 
     private static void printConfig(AugmentationConfig config) {
@@ -57,6 +96,17 @@ public class BootstrapAugmentor {
         System.out.println("  Deployment JARs:  " + config.getDeploymentJars().size());
         System.out.println("  Output:           " + config.getOutputDir());
         System.out.println("  App name:         " + config.getApplicationName());
+        System.out.println("  Prune unused:     " + config.getPruneMode().name().toLowerCase());
+        for (Map.Entry<String, String> property : config.getBuildProperties().entrySet()) {
+            System.out.println("  Build property:   " + property.getKey() + "=" + property.getValue());
+        }
+        System.out.println("  JVM resources:    " + Runtime.getRuntime().availableProcessors() + " CPUs, "
+            + (Runtime.getRuntime().maxMemory() / (1024 * 1024)) + " MB max heap");
+        System.out.println("  lib/main layout:  " + config.getLibraryLayout().name().toLowerCase().replace('_', '-'));
+        if (!config.getLinkedLibraries().isEmpty()) {
+            System.out.println("  Linked libraries: " + config.getLinkedLibraries().size()
+                + " (" + config.getLinkedLibrariesDir() + ")");
+        }
         System.out.println();
     }
 
@@ -109,6 +159,7 @@ public class BootstrapAugmentor {
             .setMode(QuarkusBootstrap.Mode.PROD)
             .setIsolateDeployment(false)  // Don't isolate deployment classes
             .setFlatClassPath(true)       // Use flat classpath to avoid classloader issues
+            .setBuildSystemProperties(config.getBuildSystemProperties())
             .build();
     }
 
@@ -197,11 +248,79 @@ public class BootstrapAugmentor {
                 // List output structure
                 OutputHandler.listOutput(result);
 
+                // Optionally find (and drop) lib/main JARs nothing reaches
+                Set<Path> excludedJars = analyzeUnusedJars(result, config);
+
                 // Copy to final output location
-                OutputHandler.copyOutput(result, config);
+                OutputHandler.copyOutput(result, config, excludedJars);
+
+                // Optionally lay out JARs in class-load order
+                optimizeClassLoadOrder(config);
             } finally {
                 Thread.currentThread().setContextClassLoader(originalTccl);
             }
         }
     }
+
+    private static Set<Path> analyzeUnusedJars(AugmentResult result, AugmentationConfig config)
+            throws Exception {
+
+        UnusedJarAnalyzer.Mode mode = config.getPruneMode();
+        if (mode == UnusedJarAnalyzer.Mode.OFF) {
+            return Collections.emptySet();
+        }
+
+        System.out.println("  Analyzing lib/main for unused JARs (mode=" + mode.name().toLowerCase() + ")...");
+        Path appDir = result.getJar().getPath().getParent();
+        UnusedJarAnalyzer.Result analysis = UnusedJarAnalyzer.analyze(appDir, config.getPruneSafelist());
+
+        System.out.println("    Analyzed " + analysis.getAnalyzedJars() + " JARs, "
+            + analysis.getReachableClasses() + " reachable classes");
+        for (Map.Entry<Path, Integer> entry : analysis.getUnusedJars().entrySet()) {
+            System.out.println("    Unused: " + entry.getKey() + " (" + entry.getValue() + " classes)");
+        }
+        for (Path jar : analysis.getSafelistedJars()) {
+            System.out.println("    Kept (safelist): " + jar);
+        }
+        for (Path jar : analysis.getResourceJars()) {
+            System.out.println("    Kept (resources): " + jar);
+        }
+
+        if (config.getPruneReport() != null) {
+            analysis.writeReport(config.getPruneReport(), config.getApplicationName(), mode);
+        }
+
+        return mode == UnusedJarAnalyzer.Mode.EXCLUDE
+            ? analysis.getUnusedJars().keySet()
+            : Collections.emptySet();
+    }
+
+    private static void writeUnusedInputs(InputUsageTracker usageTracker, AugmentationConfig config)
+            throws Exception {
+        List<Path> unused = InputUsageTracker.findUnusedInputs(config, usageTracker.stop());
+        InputUsageTracker.writeUnusedInputs(config.getUnusedInputsList(), unused);
+        System.out.println("Unused inputs: " + unused.size() + " of "
+            + config.getDeploymentJars().size() + " deployment JARs");
+    }
+
+    private static void optimizeClassLoadOrder(AugmentationConfig config) throws Exception {
+        List<String> order;
+        if (config.getTrainedClassLoadOrder() != null) {
+            System.out.println("  Recording class-load order (training run)...");
+            order = ClassLoadOrderOptimizer.train(config.getOutputDir());
+            ClassLoadOrderOptimizer.writeOrder(config.getTrainedClassLoadOrder(), order);
+        } else if (config.getClassLoadOrder() != null) {
+            order = ClassLoadOrderOptimizer.readOrder(config.getClassLoadOrder());
+        } else {
+            return;
+        }
+
+        ClassLoadOrderOptimizer.Result layout = ClassLoadOrderOptimizer.optimize(config.getOutputDir(), order);
+        System.out.println("  Class-load order: " + order.size() + " recorded, "
+            + layout.getOrderedClasses() + " found in application JARs");
+        for (Path jar : layout.getRepackedJars()) {
+            System.out.println("    Repacked: " + jar);
+        }
+        System.out.println("    Preload list: " + layout.getPreloadJars().size() + " JARs");
+    }
 }
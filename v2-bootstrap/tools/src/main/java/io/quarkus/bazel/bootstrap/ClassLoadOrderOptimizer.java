@@ -0,0 +1,333 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Lays out the augmented application in class-load order.
+ *
+ * A training run starts the augmented application with
+ * {@code -Xlog:class+load} until Quarkus reports it has started and records
+ * the order in which classes are loaded. Alternatively a previously recorded
+ * order can be supplied, so builds do not need to run the application.
+ *
+ * The recorded order is then used to:
+ * - rewrite app/*.jar and quarkus/generated-bytecode.jar so class entries
+ *   appear in first-use order (sequential page-cache reads on cold start)
+ * - write preload-jars.txt, every JAR of the application in first-use
+ *   order, which the runner script reads ahead before starting the JVM
+ *
+ * Entry names are unchanged, so quarkus-application.dat stays valid.
+ */
+public class ClassLoadOrderOptimizer {
+
+    static final String PRELOAD_LIST = "preload-jars.txt";
+
+    private static final String STARTED_MARKER = "started in";
+    private static final long TRAINING_TIMEOUT_SECONDS = 120;
+
+    /**
+     * Result of applying a class-load order to an application directory.
+     */
+    public static class Result {
+        private final List<Path> repackedJars;
+        private final List<Path> preloadJars;
+        private final int orderedClasses;
+
+        Result(List<Path> repackedJars, List<Path> preloadJars, int orderedClasses) {
+            this.repackedJars = repackedJars;
+            this.preloadJars = preloadJars;
+            this.orderedClasses = orderedClasses;
+        }
+
+        /**
+         * Rewritten JARs, relative to the quarkus-app directory.
+         */
+        public List<Path> getRepackedJars() {
+            return repackedJars;
+        }
+
+        /**
+         * JARs in first-use order, relative to the quarkus-app directory.
+         */
+        public List<Path> getPreloadJars() {
+            return preloadJars;
+        }
+
+        /**
+         * Number of recorded classes found in the application's JARs.
+         */
+        public int getOrderedClasses() {
+            return orderedClasses;
+        }
+    }
+
+    /**
+     * Start the application in appDir, record class loading until it has
+     * started (or exits/times out) and return the classes in load order.
+     */
+    public static List<String> train(Path appDir) throws IOException, InterruptedException {
+        Path log = Files.createTempFile("class-load", ".log");
+        try {
+            List<String> command = AppLauncher.command(appDir, List.of(
+                "-Xlog:class+load=info:file=" + log.toAbsolutePath() + ":none",
+                "-Dquarkus.http.port=0",
+                "-Dquarkus.http.host=127.0.0.1"));
+
+            System.out.println("    Training run: " + String.join(" ", command));
+            Process process = new ProcessBuilder(command)
+                .directory(appDir.toFile())
+                .redirectErrorStream(true)
+                .start();
+
+            boolean started = waitForStartup(process);
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+
+            if (!started) {
+                System.out.println("    WARNING: application did not report startup, using partial order");
+            }
+            return parseClassLoadLog(log);
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    /**
+     * Echo the application output until the startup marker appears, the
+     * process exits or the training timeout expires.
+     */
+    private static boolean waitForStartup(Process process) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    System.out.println("      | " + line);
+                    if (line.contains(STARTED_MARKER)) {
+                        started.countDown();
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closed when the process is destroyed
+            }
+        }, "class-load-training-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TRAINING_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (started.await(200, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            if (!process.isAlive()) {
+                return started.getCount() == 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse {@code -Xlog:class+load} output into class names in load order.
+     * Hidden and lambda classes (names containing '/') are skipped.
+     */
+    static List<String> parseClassLoadLog(Path log) throws IOException {
+        Set<String> classes = new LinkedHashSet<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                // Strip decorations such as [0.012s][info][class,load]
+                while (trimmed.startsWith("[")) {
+                    int end = trimmed.indexOf(']');
+                    if (end < 0) {
+                        break;
+                    }
+                    trimmed = trimmed.substring(end + 1).trim();
+                }
+                int space = trimmed.indexOf(' ');
+                String className = space > 0 ? trimmed.substring(0, space) : trimmed;
+                if (!className.isEmpty() && className.indexOf('/') < 0) {
+                    classes.add(className);
+                }
+            }
+        }
+
+        return new ArrayList<>(classes);
+    }
+
+    public static List<String> readOrder(Path file) throws IOException {
+        List<String> classes = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                classes.add(trimmed);
+            }
+        }
+        return classes;
+    }
+
+    public static void writeOrder(Path file, List<String> classes) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            out.println("# Class-load order (one class per line)");
+            for (String className : classes) {
+                out.println(className);
+            }
+        }
+    }
+
+    /**
+     * Repack app/ and generated bytecode JARs in the given order and write
+     * the preload list to appDir.
+     */
+    public static Result optimize(Path appDir, List<String> classOrder) throws IOException {
+        List<String> entryOrder = new ArrayList<>(classOrder.size());
+        for (String className : classOrder) {
+            entryOrder.add(className.replace('.', '/') + ".class");
+        }
+
+        // First JAR (in class path order) providing each entry
+        List<Path> jars = listJars(appDir);
+        Map<String, Path> entryToJar = new HashMap<>();
+        for (Path jar : jars) {
+            try (ZipFile zip = new ZipFile(jar.toFile())) {
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    entryToJar.putIfAbsent(entries.nextElement().getName(), jar);
+                }
+            }
+        }
+
+        Set<Path> preload = new LinkedHashSet<>();
+        int orderedClasses = 0;
+        for (String entry : entryOrder) {
+            Path jar = entryToJar.get(entry);
+            if (jar != null) {
+                preload.add(appDir.relativize(jar));
+                orderedClasses++;
+            }
+        }
+        // JARs never touched during training are still read, just last
+        for (Path jar : jars) {
+            preload.add(appDir.relativize(jar));
+        }
+
+        List<Path> repacked = new ArrayList<>();
+        for (Path jar : jars) {
+            Path relative = appDir.relativize(jar);
+            if (relative.startsWith("app") || relative.equals(Paths.get("quarkus", "generated-bytecode.jar"))) {
+                repack(jar, entryOrder);
+                repacked.add(relative);
+            }
+        }
+
+        List<Path> preloadJars = new ArrayList<>(preload);
+        try (PrintWriter out = new PrintWriter(
+                Files.newBufferedWriter(appDir.resolve(PRELOAD_LIST), StandardCharsets.UTF_8))) {
+            for (Path jar : preloadJars) {
+                out.println(jar.toString().replace('\\', '/'));
+            }
+        }
+
+        return new Result(repacked, preloadJars, orderedClasses);
+    }
+
+    /**
+     * JARs of the application in class path order: boot, app, generated, main.
+     */
+    private static List<Path> listJars(Path appDir) throws IOException {
+        List<Path> jars = new ArrayList<>();
+        for (String dir : new String[] {"lib/boot", "app", "quarkus", "lib/main"}) {
+            Path path = appDir.resolve(dir);
+            if (!Files.isDirectory(path)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.list(path)) {
+                files.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                    .sorted()
+                    .forEach(jars::add);
+            }
+        }
+        return jars;
+    }
+
+    /**
+     * Rewrite a JAR with META-INF/ and the manifest first (JarInputStream
+     * expects them there), then classes in load order, then everything else
+     * in the original order. Entry data, timestamps and methods are kept.
+     */
+    private static void repack(Path jar, List<String> entryOrder) throws IOException {
+        Path tmp = jar.resolveSibling(jar.getFileName() + ".tmp");
+
+        try (ZipFile zip = new ZipFile(jar.toFile());
+             OutputStream fos = Files.newOutputStream(tmp);
+             ZipOutputStream out = new ZipOutputStream(fos)) {
+
+            List<ZipEntry> ordered = new ArrayList<>();
+            Set<String> written = new LinkedHashSet<>();
+            for (String name : new String[] {"META-INF/", "META-INF/MANIFEST.MF"}) {
+                ZipEntry entry = zip.getEntry(name);
+                if (entry != null && written.add(name)) {
+                    ordered.add(entry);
+                }
+            }
+            for (String name : entryOrder) {
+                ZipEntry entry = zip.getEntry(name);
+                if (entry != null && written.add(name)) {
+                    ordered.add(entry);
+                }
+            }
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (written.add(entry.getName())) {
+                    ordered.add(entry);
+                }
+            }
+
+            for (ZipEntry entry : ordered) {
+                ZipEntry copy = new ZipEntry(entry);
+                copy.setCompressedSize(-1);
+                out.putNextEntry(copy);
+                if (!entry.isDirectory()) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+
+        Files.move(tmp, jar, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
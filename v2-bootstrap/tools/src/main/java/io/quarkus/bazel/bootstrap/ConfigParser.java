@@ -1,5 +1,10 @@
 package io.quarkus.bazel.bootstrap;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -10,16 +15,37 @@ import java.util.List;
  *
  * Expected arguments:
  *   --output-dir <path>
+ *   --output-zip <path>        (single quarkus-app.zip instead of a directory)
  *   --application-jars <jar1>,<jar2>,...
  *   --runtime-jars <jar1>,<jar2>,...
  *   --deployment-jars <jar1>,<jar2>,...
  *   --app-name <name>
  *   --main-class <class>
+ *   --build-property <key>=<value>   (repeatable)
+ *   --quarkus.<key>=<value>          (shorthand for a quarkus.* build property)
+ *   --prune-unused-jars off|report|exclude
+ *   --prune-safelist <pattern1>,<pattern2>,...
+ *   --prune-report <path>
+ *   --curated-deps <file>     (output of DependencyCurator)
+ *   --class-load-order <file> (recorded class-load order to lay out JARs with)
+ *   --train-class-load-order <file> (record the order by starting the app)
+ *   --lib-layout fast-jar|merged
+ *   --bundle-report <path>
+ *   --unused-inputs-list <path> (Bazel unused_inputs_list output)
+ *   --linked-libraries <jar>=<name>,...  (input JARs symlinked next to the output)
+ *   --linked-libraries-dir <dir>  (symlink directory relative to the output)
+ *   --input-manifest <path>   (digests of all inputs, see InputManifest)
+ *
+ * Any argument of the form {@code @<file>} is replaced by the lines of that
+ * file (Bazel multiline param file). A JAR list value of the form
+ * {@code @<file>} (e.g. {@code --runtime-jars=@<file>}) is read as one path
+ * per line, so large classpaths never have to fit on the command line.
  */
 public class ConfigParser {
 
-    public static AugmentationConfig parse(String[] args) {
+    public static AugmentationConfig parse(String[] rawArgs) {
         AugmentationConfig.Builder builder = AugmentationConfig.builder();
+        String[] args = expandParamFiles(rawArgs);
 
         for (int i = 0; i < args.length; i++) {
             String arg = args[i];
@@ -29,6 +55,10 @@ public class ConfigParser {
                     builder.setOutputDir(Paths.get(args[++i]));
                     break;
 
+                case "--output-zip":
+                    builder.setOutputZip(Paths.get(args[++i]));
+                    break;
+
                 case "--application-jars":
                     builder.addApplicationJars(parseJarList(args[++i]));
                     break;
@@ -49,6 +79,58 @@ public class ConfigParser {
                     builder.setMainClass(args[++i]);
                     break;
 
+                case "--build-property":
+                    addBuildProperty(builder, args[++i]);
+                    break;
+
+                case "--prune-unused-jars":
+                    builder.setPruneMode(parsePruneMode(args[++i]));
+                    break;
+
+                case "--prune-safelist":
+                    builder.addPruneSafelist(parseList(args[++i]));
+                    break;
+
+                case "--prune-report":
+                    builder.setPruneReport(Paths.get(args[++i]));
+                    break;
+
+                case "--curated-deps":
+                    builder.setCuratedDependencies(readCuratedDependencies(args[++i]));
+                    break;
+
+                case "--class-load-order":
+                    builder.setClassLoadOrder(Paths.get(args[++i]));
+                    break;
+
+                case "--train-class-load-order":
+                    builder.setTrainedClassLoadOrder(Paths.get(args[++i]));
+                    break;
+
+                case "--lib-layout":
+                    builder.setLibraryLayout(parseLibraryLayout(args[++i]));
+                    break;
+
+                case "--bundle-report":
+                    builder.setBundleReport(Paths.get(args[++i]));
+                    break;
+
+                case "--unused-inputs-list":
+                    builder.setUnusedInputsList(Paths.get(args[++i]));
+                    break;
+
+                case "--linked-libraries":
+                    addLinkedLibraries(builder, args[++i]);
+                    break;
+
+                case "--linked-libraries-dir":
+                    builder.setLinkedLibrariesDir(Paths.get(args[++i]));
+                    break;
+
+                case "--input-manifest":
+                    builder.setInputManifest(Paths.get(args[++i]));
+                    break;
+
                 default:
                     // Handle --key=value format
                     if (arg.startsWith("--") && arg.contains("=")) {
@@ -68,6 +150,9 @@ public class ConfigParser {
             case "output-dir":
                 builder.setOutputDir(Paths.get(value));
                 break;
+            case "output-zip":
+                builder.setOutputZip(Paths.get(value));
+                break;
             case "application-jars":
                 builder.addApplicationJars(parseJarList(value));
                 break;
@@ -83,16 +168,152 @@ public class ConfigParser {
             case "main-class":
                 builder.setMainClass(value);
                 break;
+            case "build-property":
+                addBuildProperty(builder, value);
+                break;
+            case "prune-unused-jars":
+                builder.setPruneMode(parsePruneMode(value));
+                break;
+            case "prune-safelist":
+                builder.addPruneSafelist(parseList(value));
+                break;
+            case "prune-report":
+                builder.setPruneReport(Paths.get(value));
+                break;
+            case "curated-deps":
+                builder.setCuratedDependencies(readCuratedDependencies(value));
+                break;
+            case "class-load-order":
+                builder.setClassLoadOrder(Paths.get(value));
+                break;
+            case "train-class-load-order":
+                builder.setTrainedClassLoadOrder(Paths.get(value));
+                break;
+            case "lib-layout":
+                builder.setLibraryLayout(parseLibraryLayout(value));
+                break;
+            case "bundle-report":
+                builder.setBundleReport(Paths.get(value));
+                break;
+            case "unused-inputs-list":
+                builder.setUnusedInputsList(Paths.get(value));
+                break;
+            case "linked-libraries":
+                addLinkedLibraries(builder, value);
+                break;
+            case "linked-libraries-dir":
+                builder.setLinkedLibrariesDir(Paths.get(value));
+                break;
+            case "input-manifest":
+                builder.setInputManifest(Paths.get(value));
+                break;
+            default:
+                if (key.startsWith("quarkus.")) {
+                    builder.addBuildProperty(key, value);
+                } else {
+                    System.err.println("Unknown argument: --" + key + "=" + value);
+                }
+        }
+    }
+
+    private static void addBuildProperty(AugmentationConfig.Builder builder, String property) {
+        String[] parts = property.split("=", 2);
+        if (parts.length != 2 || parts[0].trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid --build-property (expected key=value): " + property);
+        }
+        builder.addBuildProperty(parts[0].trim(), parts[1]);
+    }
+
+    /**
+     * Linked libraries are {@code <input jar>=<symlink name>} pairs, given
+     * comma-separated or as {@code @<file>} with one pair per line.
+     */
+    private static void addLinkedLibraries(AugmentationConfig.Builder builder, String value) {
+        for (Path pair : parseJarList(value)) {
+            String entry = pair.toString();
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0 || separator == entry.length() - 1) {
+                throw new IllegalArgumentException("Invalid --linked-libraries entry (expected jar=name): " + entry);
+            }
+            builder.addLinkedLibrary(Paths.get(entry.substring(0, separator)), entry.substring(separator + 1));
+        }
+    }
+
+    private static CuratedDependencies readCuratedDependencies(String file) {
+        try {
+            return CuratedDependencies.read(Paths.get(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read curated dependencies: " + file, e);
+        }
+    }
+
+    private static UnusedJarAnalyzer.Mode parsePruneMode(String value) {
+        try {
+            return UnusedJarAnalyzer.Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Invalid --prune-unused-jars value: " + value + " (expected off, report or exclude)");
+        }
+    }
+
+    private static LibraryBundler.Layout parseLibraryLayout(String value) {
+        try {
+            return LibraryBundler.Layout.valueOf(value.trim().replace('-', '_').toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "Invalid --lib-layout value: " + value + " (expected fast-jar or merged)");
+        }
+    }
+
+    private static List<String> parseList(String value) {
+        List<String> items = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * Replace every {@code @<file>} argument with the lines of that file.
+     */
+    static String[] expandParamFiles(String[] args) {
+        List<String> expanded = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("@") && arg.length() > 1) {
+                try (BufferedReader reader = Files.newBufferedReader(
+                        Paths.get(arg.substring(1)), StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (!line.isEmpty()) {
+                            expanded.add(line);
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read param file: " + arg, e);
+                }
+            } else {
+                expanded.add(arg);
+            }
         }
+
+        return expanded.toArray(new String[0]);
     }
 
-    private static List<Path> parseJarList(String jarList) {
+    static List<Path> parseJarList(String jarList) {
         List<Path> jars = new ArrayList<>();
 
         if (jarList == null || jarList.isEmpty()) {
             return jars;
         }
 
+        if (jarList.startsWith("@")) {
+            return readJarListFile(Paths.get(jarList.substring(1)));
+        }
+
         // Handle both comma-separated and File.pathSeparator-separated
         String separator = jarList.contains(",") ? "," : java.io.File.pathSeparator;
 
@@ -105,4 +326,25 @@ public class ConfigParser {
 
         return jars;
     }
+
+    /**
+     * Stream a param file containing one JAR path per line.
+     */
+    private static List<Path> readJarListFile(Path paramFile) {
+        List<Path> jars = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(paramFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    jars.add(Paths.get(trimmed));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JAR list file: " + paramFile, e);
+        }
+
+        return jars;
+    }
 }
@@ -0,0 +1,155 @@
+package io.quarkus.bazel.bootstrap;
+
+import io.quarkus.maven.dependency.DependencyFlags;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The curated (resolved and flagged) dependency set of an application.
+ *
+ * Depends only on the runtime and deployment JARs, never on application
+ * code, so it is produced by a separate Bazel action that is cached and
+ * shared by every application with the same extension set.
+ *
+ * Serialized as a deterministic, tab-separated text file:
+ *   flags  groupId  artifactId  version  path
+ */
+public class CuratedDependencies {
+
+    private static final String HEADER = "# quarkus-bazel curated dependencies v1";
+
+    /**
+     * A single resolved dependency with its Quarkus dependency flags.
+     */
+    public static class Entry {
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final Path path;
+        private final int flags;
+
+        public Entry(String groupId, String artifactId, String version, Path path, int flags) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.path = path;
+            this.flags = flags;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public int getFlags() {
+            return flags;
+        }
+
+        public boolean isRuntimeCp() {
+            return (flags & DependencyFlags.RUNTIME_CP) != 0;
+        }
+
+        public boolean isDeploymentCp() {
+            return (flags & DependencyFlags.DEPLOYMENT_CP) != 0;
+        }
+
+        public boolean isRuntimeExtension() {
+            return (flags & DependencyFlags.RUNTIME_EXTENSION_ARTIFACT) != 0;
+        }
+    }
+
+    private final List<Entry> entries;
+
+    public CuratedDependencies(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * JARs on the runtime class path (in curation order).
+     */
+    public List<Path> getRuntimeJars() {
+        List<Path> jars = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isRuntimeCp()) {
+                jars.add(entry.getPath());
+            }
+        }
+        return jars;
+    }
+
+    /**
+     * JARs only needed on the deployment class path.
+     */
+    public List<Path> getDeploymentJars() {
+        List<Path> jars = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.isDeploymentCp() && !entry.isRuntimeCp()) {
+                jars.add(entry.getPath());
+            }
+        }
+        return jars;
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(entry.getFlags() + "\t" + entry.getGroupId() + "\t" + entry.getArtifactId()
+                    + "\t" + entry.getVersion() + "\t" + entry.getPath());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static CuratedDependencies read(Path file) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException("Not a curated dependencies file: " + file);
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split("\t", 5);
+                if (parts.length != 5) {
+                    throw new IOException("Malformed curated dependency line in " + file + ": " + line);
+                }
+                entries.add(new Entry(parts[1], parts[2], parts[3], Paths.get(parts[4]),
+                    Integer.parseInt(parts[0])));
+            }
+        }
+
+        return new CuratedDependencies(entries);
+    }
+}
@@ -0,0 +1,81 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point for the dependency curation action.
+ *
+ * Turns runtime and deployment JARs into a {@link CuratedDependencies} file.
+ * The output depends only on the dependency JARs, so Bazel caches it across
+ * commits and shares it between applications that reference the same
+ * target; BootstrapAugmentor then consumes it via --curated-deps.
+ *
+ * Only extension detection, deployment mapping and dependency flags are
+ * cached. QuarkusBootstrap.bootstrap() (CuratedApplication, class loaders)
+ * still runs in every augmentation, since it cannot leave the JVM.
+ *
+ * Expected arguments:
+ *   --runtime-jars <jar1>,<jar2>,...   (or =@paramfile)
+ *   --deployment-jars <jar1>,<jar2>,... (or =@paramfile)
+ *   --output <file>
+ */
+public class DependencyCurator {
+
+    public static void main(String[] rawArgs) throws Exception {
+        System.out.println("Quarkus Dependency Curator (v2)");
+        System.out.println("===============================");
+        System.out.println();
+
+        String[] args = ConfigParser.expandParamFiles(rawArgs);
+        List<Path> runtimeJars = new ArrayList<>();
+        List<Path> deploymentJars = new ArrayList<>();
+        Path output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String key = arg;
+            String value;
+            if (arg.startsWith("--") && arg.contains("=")) {
+                String[] parts = arg.split("=", 2);
+                key = parts[0];
+                value = parts[1];
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+
+            switch (key) {
+                case "--runtime-jars":
+                    runtimeJars.addAll(ConfigParser.parseJarList(value));
+                    break;
+                case "--deployment-jars":
+                    deploymentJars.addAll(ConfigParser.parseJarList(value));
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + arg);
+            }
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("--output is required");
+        }
+
+        System.out.println("Curating dependencies...");
+        System.out.println("  Runtime JARs:    " + runtimeJars.size());
+        System.out.println("  Deployment JARs: " + deploymentJars.size());
+
+        CuratedDependencies curated = ApplicationModelFactory.curate(runtimeJars, deploymentJars);
+        curated.write(output);
+
+        System.out.println();
+        System.out.println("Curated " + curated.getEntries().size() + " dependencies");
+        System.out.println("Output: " + output);
+    }
+}
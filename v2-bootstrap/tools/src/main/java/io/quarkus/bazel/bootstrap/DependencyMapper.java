@@ -1,9 +1,13 @@
 package io.quarkus.bazel.bootstrap;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 /**
  * Maps runtime extension artifacts to their deployment counterparts.
@@ -13,6 +17,8 @@ import java.util.Map;
  */
 public class DependencyMapper {
 
+    private static final String MAVEN_METADATA = "META-INF/maven/";
+
     /**
      * Result of dependency mapping.
      */
@@ -91,25 +97,16 @@ public class DependencyMapper {
     /**
      * Extract artifact ID from JAR path.
      * Path pattern: .../ARTIFACT/VERSION/ARTIFACT-VERSION.jar
+     * (rules_jvm_external may prefix the file name with "processed_")
      */
     static String extractArtifactId(Path jarPath) {
-        String fileName = jarPath.getFileName().toString();
-
-        // Remove .jar extension
-        if (fileName.endsWith(".jar")) {
-            fileName = fileName.substring(0, fileName.length() - 4);
+        String[] layout = parseMavenLayout(jarPath);
+        if (layout != null) {
+            return layout[0];
         }
 
-        // Find last dash followed by a digit (version separator)
-        int lastDashBeforeVersion = -1;
-        for (int i = fileName.length() - 1; i >= 0; i--) {
-            if (fileName.charAt(i) == '-') {
-                if (i + 1 < fileName.length() && Character.isDigit(fileName.charAt(i + 1))) {
-                    lastDashBeforeVersion = i;
-                    break;
-                }
-            }
-        }
+        String fileName = stripFileName(jarPath);
+        int lastDashBeforeVersion = findVersionSeparator(fileName);
 
         if (lastDashBeforeVersion > 0) {
             return fileName.substring(0, lastDashBeforeVersion);
@@ -126,4 +123,89 @@ public class DependencyMapper {
 
         return fileName;
     }
+
+    /**
+     * groupId:artifactId of a JAR, taken from its
+     * META-INF/maven/GROUP/ARTIFACT/pom.properties entry name (only the
+     * central directory is read). Falls back to the artifactId alone when
+     * the JAR carries no Maven metadata.
+     */
+    static String extractCoordinates(Path jarPath) {
+        String artifactId = extractArtifactId(jarPath);
+        String suffix = "/" + artifactId + "/pom.properties";
+        try (ZipFile zip = new ZipFile(jarPath.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(MAVEN_METADATA) && name.endsWith(suffix)) {
+                    String groupId = name.substring(MAVEN_METADATA.length(), name.length() - suffix.length());
+                    if (!groupId.isEmpty() && groupId.indexOf('/') < 0) {
+                        return groupId + ":" + artifactId;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Not a readable JAR: the artifactId is all we have
+        }
+        return artifactId;
+    }
+
+    /**
+     * Extract version from JAR path, or null if it cannot be determined.
+     */
+    static String extractVersion(Path jarPath) {
+        String[] layout = parseMavenLayout(jarPath);
+        if (layout != null) {
+            return layout[1];
+        }
+
+        String fileName = stripFileName(jarPath);
+        int separator = findVersionSeparator(fileName);
+        return separator > 0 ? fileName.substring(separator + 1) : null;
+    }
+
+    /**
+     * Match the Maven repository layout .../ARTIFACT/VERSION/[processed_]ARTIFACT-VERSION[-classifier].jar
+     * and return {artifactId, version}, or null if the path does not follow it.
+     */
+    private static String[] parseMavenLayout(Path jarPath) {
+        String[] parts = jarPath.toString().split("/");
+        if (parts.length < 3) {
+            return null;
+        }
+        String artifactId = parts[parts.length - 3];
+        String version = parts[parts.length - 2];
+        String fileName = stripFileName(jarPath);
+        if (fileName.startsWith(artifactId + "-" + version)) {
+            return new String[] {artifactId, version};
+        }
+        return null;
+    }
+
+    private static String stripFileName(Path jarPath) {
+        String fileName = jarPath.getFileName().toString();
+
+        // Remove processed_ prefix (rules_jvm_external) and .jar extension
+        if (fileName.startsWith("processed_")) {
+            fileName = fileName.substring("processed_".length());
+        }
+        if (fileName.endsWith(".jar")) {
+            fileName = fileName.substring(0, fileName.length() - 4);
+        }
+        return fileName;
+    }
+
+    /**
+     * Find last dash followed by a digit (version separator).
+     */
+    private static int findVersionSeparator(String fileName) {
+        for (int i = fileName.length() - 1; i >= 0; i--) {
+            if (fileName.charAt(i) == '-') {
+                if (i + 1 < fileName.length() && Character.isDigit(fileName.charAt(i + 1))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
 }
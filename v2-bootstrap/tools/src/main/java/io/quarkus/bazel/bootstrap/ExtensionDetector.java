@@ -85,7 +85,7 @@ public class ExtensionDetector {
      * Parse Maven coordinates from Bazel external JAR path.
      * Path pattern: .../maven2/GROUP_PATH/ARTIFACT/VERSION/ARTIFACT-VERSION.jar
      */
-    private static MavenCoords parseMavenCoords(Path jarPath) {
+    static MavenCoords parseMavenCoords(Path jarPath) {
         String path = jarPath.toString();
         String[] parts = path.split("/");
 
@@ -0,0 +1,238 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Fast consistency check between runtime extensions and deployment modules.
+ *
+ * Runs as its own Bazel action before augmentation. It only reads
+ * META-INF/quarkus-extension.properties from runtime JARs, the paths of
+ * deployment JARs and the Maven metadata entry names of both (for
+ * groupId:artifactId), so it finishes in well under a second and fails the
+ * build with a readable list instead of a build chain error minutes into
+ * AugmentActionImpl.
+ *
+ * Checks:
+ * - every runtime extension has its deployment module (DependencyMapper)
+ * - the deployment module version matches the one the extension declares
+ * - artifacts on both class paths resolve to the same version
+ *
+ * Expected arguments:
+ *   --runtime-jars <jar1>,<jar2>,...   (or =@paramfile)
+ *   --deployment-jars <jar1>,<jar2>,... (or =@paramfile)
+ *   --allow-unmapped <artifactId1>,<artifactId2>,...
+ *   --output <file>
+ */
+public class ExtensionValidator {
+
+    public static void main(String[] rawArgs) throws Exception {
+        String[] args = ConfigParser.expandParamFiles(rawArgs);
+        List<Path> runtimeJars = new ArrayList<>();
+        List<Path> deploymentJars = new ArrayList<>();
+        Set<String> allowUnmapped = new HashSet<>();
+        Path output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String key = arg;
+            String value;
+            if (arg.startsWith("--") && arg.contains("=")) {
+                String[] parts = arg.split("=", 2);
+                key = parts[0];
+                value = parts[1];
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+
+            switch (key) {
+                case "--runtime-jars":
+                    runtimeJars.addAll(ConfigParser.parseJarList(value));
+                    break;
+                case "--deployment-jars":
+                    deploymentJars.addAll(ConfigParser.parseJarList(value));
+                    break;
+                case "--allow-unmapped":
+                    for (String artifactId : value.split(",")) {
+                        if (!artifactId.trim().isEmpty()) {
+                            allowUnmapped.add(artifactId.trim());
+                        }
+                    }
+                    break;
+                case "--output":
+                    output = Paths.get(value);
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + arg);
+            }
+        }
+
+        if (output == null) {
+            throw new IllegalArgumentException("--output is required");
+        }
+
+        List<ExtensionInfo> extensions = ExtensionDetector.detect(runtimeJars);
+        List<String> errors = validate(extensions, runtimeJars, deploymentJars, allowUnmapped);
+        writeReport(output, extensions, errors);
+
+        if (!errors.isEmpty()) {
+            System.err.println("Quarkus extension validation failed (" + errors.size() + " problem(s)):");
+            for (String error : errors) {
+                System.err.println("  - " + error);
+            }
+            System.err.println();
+            System.err.println("Add the missing *-deployment modules to deployment_extensions,"
+                + " align versions in MODULE.bazel, or list intentionally unmapped"
+                + " extensions in allow_unmapped_extensions.");
+            System.exit(1);
+        }
+
+        System.out.println("Validated " + extensions.size() + " Quarkus extensions against "
+            + deploymentJars.size() + " deployment JARs");
+    }
+
+    /**
+     * Validate extensions against deployment JARs. Returns human-readable problems.
+     */
+    static List<String> validate(List<ExtensionInfo> extensions,
+                                 List<Path> runtimeJars,
+                                 List<Path> deploymentJars,
+                                 Set<String> allowUnmapped) {
+        List<String> errors = new ArrayList<>();
+
+        // 1. Every extension must have its deployment module
+        DependencyMapper.MappingResult mapping = DependencyMapper.mapExtensions(extensions, deploymentJars);
+        for (ExtensionInfo ext : mapping.getUnmappedExtensions()) {
+            if (allowUnmapped.contains(ext.getArtifactId())) {
+                continue;
+            }
+            errors.add("Unmapped extension " + coords(ext) + ": deployment module "
+                + ext.getExpectedDeploymentArtifactId() + " not found in deployment JARs");
+        }
+
+        // 2. Deployment module version must match what the extension declares
+        Map<Path, String> deploymentCoordinates = new HashMap<>();
+        for (Path jar : deploymentJars) {
+            deploymentCoordinates.put(jar, DependencyMapper.extractCoordinates(jar));
+        }
+        for (Map.Entry<ExtensionInfo, Path> entry : byCoordinates(mapping.getRuntimeToDeployment()).values()) {
+            ExtensionInfo ext = entry.getKey();
+            Path deploymentJar = declaredDeploymentJar(ext, entry.getValue(), deploymentCoordinates);
+            String expected = expectedDeploymentVersion(ext);
+            String actual = DependencyMapper.extractVersion(deploymentJar);
+            if (expected != null && actual != null && !expected.equals(actual)) {
+                errors.add("Version mismatch for " + ext.getGroupId() + ":" + ext.getArtifactId()
+                    + ": extension expects " + ext.getExpectedDeploymentArtifactId() + ":" + expected
+                    + " but deployment JAR is " + actual + " (" + deploymentJar.getFileName() + ")");
+            }
+        }
+
+        // 3. Artifacts on both class paths must resolve to the same version
+        //    (matched on groupId:artifactId, artifactIds repeat across groups)
+        Map<String, String> runtimeVersions = new TreeMap<>();
+        for (Path jar : runtimeJars) {
+            String version = DependencyMapper.extractVersion(jar);
+            if (version != null) {
+                runtimeVersions.putIfAbsent(DependencyMapper.extractCoordinates(jar), version);
+            }
+        }
+        Set<String> reported = new HashSet<>();
+        for (Path jar : deploymentJars) {
+            String coordinates = deploymentCoordinates.get(jar);
+            String deploymentVersion = DependencyMapper.extractVersion(jar);
+            String runtimeVersion = runtimeVersions.get(coordinates);
+            if (runtimeVersion != null && deploymentVersion != null
+                    && !runtimeVersion.equals(deploymentVersion) && reported.add(coordinates)) {
+                errors.add("Version mismatch for " + coordinates + ": runtime " + runtimeVersion
+                    + " vs deployment " + deploymentVersion);
+            }
+        }
+
+        return errors;
+    }
+
+    private static Map<String, Map.Entry<ExtensionInfo, Path>> byCoordinates(Map<ExtensionInfo, Path> mapping) {
+        Map<String, Map.Entry<ExtensionInfo, Path>> sorted = new TreeMap<>();
+        for (Map.Entry<ExtensionInfo, Path> entry : mapping.entrySet()) {
+            sorted.put(entry.getKey().getGroupId() + ":" + entry.getKey().getArtifactId(), entry);
+        }
+        return sorted;
+    }
+
+    /**
+     * The deployment JAR with the groupId:artifactId the extension declares
+     * in quarkus-extension.properties. DependencyMapper matches on the
+     * artifactId only, so it may have picked the same artifactId from
+     * another group.
+     */
+    private static Path declaredDeploymentJar(ExtensionInfo ext, Path mapped, Map<Path, String> deploymentCoordinates) {
+        String deploymentArtifact = ext.getDeploymentArtifact();
+        if (deploymentArtifact == null) {
+            return mapped;
+        }
+        String[] parts = deploymentArtifact.split(":");
+        if (parts.length < 2) {
+            return mapped;
+        }
+        String declared = parts[0] + ":" + parts[1];
+        if (declared.equals(deploymentCoordinates.get(mapped))) {
+            return mapped;
+        }
+        for (Map.Entry<Path, String> entry : deploymentCoordinates.entrySet()) {
+            if (declared.equals(entry.getValue())) {
+                return entry.getKey();
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Version of the deployment module declared in quarkus-extension.properties
+     * (groupId:artifactId:version), falling back to the extension's own version.
+     */
+    private static String expectedDeploymentVersion(ExtensionInfo ext) {
+        String deploymentArtifact = ext.getDeploymentArtifact();
+        if (deploymentArtifact != null) {
+            String[] parts = deploymentArtifact.split(":");
+            if (parts.length >= 3 && !parts[parts.length - 1].isEmpty()) {
+                return parts[parts.length - 1];
+            }
+        }
+        String version = ext.getVersion();
+        if (version == null || version.equals("unknown")) {
+            return DependencyMapper.extractVersion(ext.getJarPath());
+        }
+        return version;
+    }
+
+    private static String coords(ExtensionInfo ext) {
+        return ext.getGroupId() + ":" + ext.getArtifactId() + ":" + ext.getVersion();
+    }
+
+    private static void writeReport(Path output, List<ExtensionInfo> extensions, List<String> errors)
+            throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))) {
+            out.println("# Quarkus extension validation");
+            out.println("# extensions=" + extensions.size() + " problems=" + errors.size());
+            for (String error : errors) {
+                out.println("ERROR " + error);
+            }
+        }
+    }
+}
@@ -0,0 +1,646 @@
+package io.quarkus.bazel.bootstrap;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+/**
+ * Heap footprint report of an augmented quarkus-app, by owner.
+ *
+ * Starts the application, waits for the Quarkus "started in" log line (plus
+ * a settle delay), takes a live class histogram with
+ * `jcmd <pid> GC.class_histogram` (which runs a full GC first) and stops it
+ * again. The shallow size of the live instances of every class is then
+ * attributed to:
+ * - its package
+ * - the JAR it was loaded from (app/, quarkus/, lib/main, lib/boot or the
+ *   symlinked libraries next to the output)
+ * - the owner of that JAR: "application", "generated", the artifactId of a
+ *   runtime extension, "shared" for a library several extensions depend on,
+ *   "library" for one no extension depends on, "runner" for lib/boot and
+ *   "jdk"/"unknown" for classes outside the application
+ * - the ArC bean it belongs to (bean class plus its generated _Bean,
+ *   _ClientProxy and _Subclass)
+ *
+ * Libraries are assigned to extensions by walking the dependencies declared
+ * in the META-INF/maven pom.xml embedded in lib/main JARs, starting at each
+ * extension runtime JAR and stopping at other extensions.
+ *
+ * Histogram bytes are shallow sizes of live instances: an object graph is
+ * counted at the classes of its objects, not at the bean or cache holding
+ * it, and byte[]/String contents count as "jdk". Write a heap dump with
+ * --heap-dump for retained sizes in an offline analyzer.
+ *
+ * Expected arguments:
+ *   --app-dir <quarkus-app>        (directory or quarkus-app.zip)
+ *   --output <file.json>           (default: stdout)
+ *   --jvm-flag <flag>              (repeatable)
+ *   --settle-seconds <n>           (default 2, after startup)
+ *   --timeout-seconds <n>          (default 60, for startup)
+ *   --heap-dump <file.hprof>       (optional)
+ */
+public class FootprintReport {
+
+    private static final String STARTED_MARKER = "started in";
+    private static final String GENERATED_BEAN_SUFFIX = "_Bean";
+    private static final String[] BEAN_CLASS_SUFFIXES = {"", "_Bean", "_ClientProxy", "_Subclass"};
+
+    /** "   1:         12345        1234567  [B (java.base@21)" */
+    private static final Pattern HISTOGRAM_LINE = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+
+    /**
+     * Live instances and bytes of one class (or an aggregate of classes).
+     */
+    static class Usage {
+        long instances;
+        long bytes;
+
+        void add(long instances, long bytes) {
+            this.instances += instances;
+            this.bytes += bytes;
+        }
+    }
+
+    /**
+     * Where classes come from: class -> JAR, JAR -> owner.
+     */
+    static class Ownership {
+        final Map<String, String> classJar = new HashMap<>();
+        final Map<String, String> jarOwner = new TreeMap<>();
+        final Map<String, String> ownerKind = new HashMap<>();
+        final Map<String, Set<String>> sharedBy = new HashMap<>();
+        final Set<String> beanClasses = new TreeSet<>();
+
+        String ownerOfClass(String className) {
+            String jar = classJar.get(className);
+            if (jar != null) {
+                return jarOwner.get(jar);
+            }
+            return isJdkClass(className) ? "jdk" : "unknown";
+        }
+    }
+
+    public static void main(String[] rawArgs) throws Exception {
+        String[] args = ConfigParser.expandParamFiles(rawArgs);
+        Path appDir = null;
+        Path output = null;
+        Path heapDump = null;
+        List<String> jvmFlags = new ArrayList<>();
+        long settleSeconds = 2;
+        long timeoutSeconds = 60;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--app-dir":
+                    appDir = Paths.get(args[++i]);
+                    break;
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                case "--jvm-flag":
+                    jvmFlags.add(args[++i]);
+                    break;
+                case "--settle-seconds":
+                    settleSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--timeout-seconds":
+                    timeoutSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--heap-dump":
+                    heapDump = Paths.get(args[++i]).toAbsolutePath();
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (appDir == null) {
+            System.err.println("Usage: FootprintReport --app-dir <quarkus-app> [--output report.json]"
+                + " [--jvm-flag flag]... [--settle-seconds n] [--heap-dump file.hprof]");
+            System.exit(1);
+        }
+        Path libsDir = linkedLibrariesDir(appDir);
+        Path runDir = appDir;
+        Path extracted = null;
+        if (Files.isRegularFile(appDir)) {
+            extracted = Files.createTempDirectory("quarkus-app");
+            AppArchive.extract(appDir, extracted);
+            runDir = extracted;
+        }
+
+        Map<String, Usage> histogram = null;
+        long rssKb = -1;
+        Ownership ownership = null;
+        try {
+            Process process = new ProcessBuilder(AppLauncher.command(runDir, jvmFlags))
+                .directory(runDir.toFile())
+                .redirectErrorStream(true)
+                .start();
+            try {
+                if (awaitStartup(process, timeoutSeconds)) {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(settleSeconds));
+                    rssKb = StartupBenchmark.rssKb(process.pid());
+                    histogram = parseHistogram(jcmd(process.pid(), "GC.class_histogram"));
+                    if (heapDump != null) {
+                        jcmd(process.pid(), "GC.heap_dump", heapDump.toString());
+                    }
+                }
+            } finally {
+                process.destroy();
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            if (histogram != null) {
+                ownership = scan(runDir, libsDir);
+            }
+        } finally {
+            if (extracted != null) {
+                OutputHandler.deleteDirectory(extracted);
+            }
+        }
+        if (histogram == null) {
+            System.err.println("Application exited or did not start within " + timeoutSeconds + "s");
+            System.exit(1);
+        }
+
+        String json = toJson(appDir, rssKb, heapDump, histogram, ownership);
+        if (output != null) {
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            Files.writeString(output, json + "\n", StandardCharsets.UTF_8);
+            System.err.println("Footprint report: " + output.toAbsolutePath());
+        } else {
+            System.out.println(json);
+        }
+    }
+
+    /**
+     * Waits for the startup log line, echoing the application output to stderr.
+     */
+    private static boolean awaitStartup(Process process, long timeoutSeconds) throws InterruptedException {
+        Object started = new Object();
+        boolean[] seen = {false};
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    System.err.println(line);
+                    if (line.contains(STARTED_MARKER)) {
+                        synchronized (started) {
+                            seen[0] = true;
+                            started.notifyAll();
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closed when the process is destroyed
+            }
+        }, "footprint-report-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        synchronized (started) {
+            while (!seen[0] && process.isAlive()) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    break;
+                }
+                started.wait(Math.min(remaining, 100));
+            }
+            return seen[0] && process.isAlive();
+        }
+    }
+
+    /**
+     * Runs a diagnostic command against the application with the jcmd of
+     * the current JDK and returns its output.
+     */
+    private static String jcmd(long pid, String... command) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>();
+        arguments.add(Paths.get(System.getProperty("java.home"), "bin", "jcmd").toString());
+        arguments.add(Long.toString(pid));
+        Collections.addAll(arguments, command);
+        Process jcmd = new ProcessBuilder(arguments).redirectErrorStream(true).start();
+        String result = new String(jcmd.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (jcmd.waitFor() != 0) {
+            throw new IOException("jcmd " + String.join(" ", command) + " failed:\n" + result);
+        }
+        return result;
+    }
+
+    /**
+     * Parses GC.class_histogram output into live usage per class. Array
+     * classes are folded into their element class, hidden classes and
+     * lambdas into their host class, and primitive arrays into "[primitive]".
+     */
+    static Map<String, Usage> parseHistogram(String histogram) {
+        Map<String, Usage> usage = new HashMap<>();
+        for (String line : histogram.split("\n")) {
+            Matcher matcher = HISTOGRAM_LINE.matcher(line);
+            if (matcher.find()) {
+                usage.computeIfAbsent(normalizeClassName(matcher.group(3)), k -> new Usage())
+                    .add(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+            }
+        }
+        return usage;
+    }
+
+    static String normalizeClassName(String name) {
+        String className = name;
+        while (className.startsWith("[")) {
+            className = className.substring(1);
+        }
+        if (className.startsWith("L") && className.endsWith(";")) {
+            className = className.substring(1, className.length() - 1);
+        } else if (className.length() == 1) {
+            return "[primitive]";
+        }
+        int hidden = className.indexOf('/');
+        if (hidden >= 0) {
+            className = className.substring(0, hidden);
+        }
+        int lambda = className.indexOf("$$Lambda");
+        if (lambda >= 0) {
+            className = className.substring(0, lambda);
+        }
+        return className;
+    }
+
+    private static boolean isJdkClass(String className) {
+        return className.equals("[primitive]") || className.startsWith("java.") || className.startsWith("javax.")
+            || className.startsWith("jdk.") || className.startsWith("sun.") || className.startsWith("com.sun.");
+    }
+
+    /**
+     * <name>-quarkus-libs next to <name>-quarkus-app (symlink_libraries).
+     */
+    private static Path linkedLibrariesDir(Path appDir) {
+        String name = appDir.toAbsolutePath().normalize().getFileName().toString();
+        if (name.endsWith(".zip")) {
+            return null;
+        }
+        Path dir = appDir.toAbsolutePath().normalize()
+            .resolveSibling(name.replaceFirst("-quarkus-app$", "") + "-quarkus-libs");
+        return Files.isDirectory(dir) && !dir.getFileName().toString().equals(name) ? dir : null;
+    }
+
+    /**
+     * Indexes the classes of every JAR of the application and assigns the
+     * JARs to owners.
+     */
+    static Ownership scan(Path appDir, Path libsDir) throws IOException {
+        Ownership ownership = new Ownership();
+        List<Path> libraries = new ArrayList<>(LibraryBundler.listJars(appDir.resolve("lib").resolve("main")));
+        if (libsDir != null) {
+            libraries.addAll(LibraryBundler.listJars(libsDir));
+        }
+
+        // First JAR wins, so transformed classes count for their library
+        for (Path jar : LibraryBundler.listJars(appDir.resolve("lib").resolve("boot"))) {
+            indexClasses(appDir, jar, "runner", ownership, false);
+        }
+        Map<String, Path> coordinates = new HashMap<>();
+        Map<Path, List<String>> dependencies = new HashMap<>();
+        Map<Path, String> extensions = new LinkedHashMap<>();
+        for (Path jar : libraries) {
+            indexClasses(appDir, jar, null, ownership, false);
+            String artifactId = readPom(jar, coordinates, dependencies);
+            ExtensionInfo extension = ExtensionDetector.detectExtension(jar);
+            if (extension != null) {
+                // lib/main file names carry no Maven layout to take the artifactId from
+                extensions.put(jar, artifactId != null ? artifactId : extension.getArtifactId());
+            }
+        }
+        for (Path jar : LibraryBundler.listJars(appDir.resolve("app"))) {
+            indexClasses(appDir, jar, "application", ownership, false);
+        }
+        for (Path jar : LibraryBundler.listJars(appDir.resolve("quarkus"))) {
+            indexClasses(appDir, jar, "generated", ownership, true);
+        }
+
+        // Libraries reachable from each extension, stopping at other extensions
+        Map<Path, Set<String>> reachedBy = new HashMap<>();
+        for (Map.Entry<Path, String> extension : extensions.entrySet()) {
+            Deque<Path> queue = new ArrayDeque<>();
+            Set<Path> visited = new HashSet<>();
+            queue.add(extension.getKey());
+            visited.add(extension.getKey());
+            while (!queue.isEmpty()) {
+                for (String dependency : dependencies.getOrDefault(queue.poll(), Collections.emptyList())) {
+                    Path jar = coordinates.get(dependency);
+                    if (jar != null && !extensions.containsKey(jar) && visited.add(jar)) {
+                        reachedBy.computeIfAbsent(jar, k -> new TreeSet<>()).add(extension.getValue());
+                        queue.add(jar);
+                    }
+                }
+            }
+        }
+
+        for (Path jar : libraries) {
+            String relative = relativeName(appDir, jar);
+            String owner;
+            Set<String> reached = reachedBy.getOrDefault(jar, Collections.emptySet());
+            if (extensions.containsKey(jar)) {
+                owner = extensions.get(jar);
+                ownership.ownerKind.put(owner, "extension");
+            } else if (reached.size() == 1) {
+                owner = reached.iterator().next();
+                ownership.ownerKind.put(owner, "extension");
+            } else if (reached.size() > 1) {
+                owner = "shared";
+                ownership.sharedBy.put(relative, reached);
+            } else {
+                owner = "library";
+            }
+            ownership.jarOwner.put(relative, owner);
+        }
+        return ownership;
+    }
+
+    private static void indexClasses(Path appDir, Path jar, String owner, Ownership ownership, boolean generated)
+            throws IOException {
+        String relative = relativeName(appDir, jar);
+        if (owner != null) {
+            ownership.jarOwner.put(relative, owner);
+        }
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(".class") || name.startsWith("META-INF/")) {
+                    continue;
+                }
+                String className = name.substring(0, name.length() - ".class".length()).replace('/', '.');
+                ownership.classJar.putIfAbsent(className, relative);
+                if (generated && className.endsWith(GENERATED_BEAN_SUFFIX)) {
+                    ownership.beanClasses.add(
+                        className.substring(0, className.length() - GENERATED_BEAN_SUFFIX.length()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Records groupId:artifactId of a JAR and the compile/runtime
+     * dependencies its embedded pom.xml declares. Returns the artifactId of
+     * the first embedded pom, or null without Maven metadata.
+     */
+    private static String readPom(Path jar, Map<String, Path> coordinates, Map<Path, List<String>> dependencies) {
+        String first = null;
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (!name.startsWith("META-INF/maven/") || !name.endsWith("/pom.properties")) {
+                    continue;
+                }
+                Properties properties = new Properties();
+                try (InputStream in = zip.getInputStream(entry)) {
+                    properties.load(in);
+                }
+                String groupId = properties.getProperty("groupId");
+                String artifactId = properties.getProperty("artifactId");
+                if (groupId == null || artifactId == null) {
+                    continue;
+                }
+                coordinates.putIfAbsent(groupId + ":" + artifactId, jar);
+                if (first == null) {
+                    first = artifactId;
+                }
+
+                ZipEntry pom = zip.getEntry(name.substring(0, name.length() - "pom.properties".length()) + "pom.xml");
+                if (pom != null) {
+                    try (InputStream in = zip.getInputStream(pom)) {
+                        dependencies.computeIfAbsent(jar, k -> new ArrayList<>())
+                            .addAll(pomDependencies(in, groupId));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            // No usable Maven metadata: the JAR counts as an unowned library
+        }
+        return first;
+    }
+
+    private static List<String> pomDependencies(InputStream pom, String projectGroupId) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        Document document = factory.newDocumentBuilder().parse(pom);
+
+        List<String> result = new ArrayList<>();
+        Element dependenciesElement = child(document.getDocumentElement(), "dependencies");
+        if (dependenciesElement == null) {
+            return result;
+        }
+        NodeList nodes = dependenciesElement.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            if (!(nodes.item(i) instanceof Element) || !"dependency".equals(nodes.item(i).getNodeName())) {
+                continue;
+            }
+            Element dependency = (Element) nodes.item(i);
+            String scope = text(dependency, "scope");
+            if ("test".equals(scope) || "provided".equals(scope) || "system".equals(scope)) {
+                continue;
+            }
+            String groupId = text(dependency, "groupId");
+            String artifactId = text(dependency, "artifactId");
+            if (groupId == null || artifactId == null) {
+                continue;
+            }
+            if (groupId.equals("${project.groupId}") || groupId.equals("${pom.groupId}")) {
+                groupId = projectGroupId;
+            }
+            result.add(groupId + ":" + artifactId);
+        }
+        return result;
+    }
+
+    private static Element child(Element parent, String name) {
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element && name.equals(node.getNodeName())) {
+                return (Element) node;
+            }
+        }
+        return null;
+    }
+
+    private static String text(Element parent, String name) {
+        Element element = child(parent, name);
+        return element != null ? element.getTextContent().trim() : null;
+    }
+
+    private static String relativeName(Path appDir, Path jar) {
+        Path absolute = jar.toAbsolutePath().normalize();
+        Path root = appDir.toAbsolutePath().normalize();
+        return absolute.startsWith(root)
+            ? root.relativize(absolute).toString()
+            : root.getParent().relativize(absolute).toString();
+    }
+
+    private static String toJson(Path appDir, long rssKb, Path heapDump, Map<String, Usage> histogram,
+                                 Ownership ownership) {
+        Usage total = new Usage();
+        Map<String, Usage> owners = new HashMap<>();
+        Map<String, Usage> jars = new HashMap<>();
+        Map<String, Usage> packages = new HashMap<>();
+        Map<String, Set<String>> packageOwners = new HashMap<>();
+        Map<String, Usage> beans = new HashMap<>();
+
+        Map<String, String> beanOfClass = new HashMap<>();
+        for (String bean : ownership.beanClasses) {
+            for (String suffix : BEAN_CLASS_SUFFIXES) {
+                beanOfClass.put(bean + suffix, bean);
+            }
+        }
+
+        for (Map.Entry<String, Usage> entry : histogram.entrySet()) {
+            String className = entry.getKey();
+            Usage usage = entry.getValue();
+            String owner = ownership.ownerOfClass(className);
+            total.add(usage.instances, usage.bytes);
+            owners.computeIfAbsent(owner, k -> new Usage()).add(usage.instances, usage.bytes);
+
+            String jar = ownership.classJar.get(className);
+            if (jar != null) {
+                jars.computeIfAbsent(jar, k -> new Usage()).add(usage.instances, usage.bytes);
+            }
+            int dot = className.lastIndexOf('.');
+            String packageName = dot > 0 ? className.substring(0, dot) : "";
+            packages.computeIfAbsent(packageName, k -> new Usage()).add(usage.instances, usage.bytes);
+            packageOwners.computeIfAbsent(packageName, k -> new TreeSet<>()).add(owner);
+
+            String bean = beanOfClass.get(className);
+            if (bean != null) {
+                beans.computeIfAbsent(bean, k -> new Usage()).add(usage.instances, usage.bytes);
+            }
+        }
+
+        StringWriter buffer = new StringWriter();
+        PrintWriter out = new PrintWriter(buffer);
+        out.println("{");
+        out.println("  \"app\": " + StartupBenchmark.quote(appDir.toString()) + ",");
+        out.println("  \"rss_kb\": " + rssKb + ",");
+        out.println("  \"heap_dump\": " + (heapDump != null ? StartupBenchmark.quote(heapDump.toString()) : "null")
+            + ",");
+        out.println("  \"total\": " + usageJson(total) + ",");
+
+        List<String> lines = new ArrayList<>();
+        for (String owner : sortedByBytes(owners)) {
+            String kind = ownership.ownerKind.getOrDefault(owner, owner);
+            lines.add("{\"owner\": " + StartupBenchmark.quote(owner) + ", \"kind\": " + StartupBenchmark.quote(kind)
+                + ", " + usageFields(owners.get(owner)) + "}");
+        }
+        printArray(out, "owners", lines, true);
+
+        lines = new ArrayList<>();
+        for (String jar : sortedByBytes(jars)) {
+            StringBuilder line = new StringBuilder("{\"jar\": " + StartupBenchmark.quote(jar)
+                + ", \"owner\": " + StartupBenchmark.quote(ownership.jarOwner.get(jar)));
+            Set<String> sharedBy = ownership.sharedBy.get(jar);
+            if (sharedBy != null) {
+                line.append(", \"extensions\": ").append(stringArray(sharedBy));
+            }
+            lines.add(line.append(", ").append(usageFields(jars.get(jar))).append("}").toString());
+        }
+        printArray(out, "jars", lines, true);
+
+        lines = new ArrayList<>();
+        for (String bean : sortedByBytes(beans)) {
+            lines.add("{\"bean\": " + StartupBenchmark.quote(bean) + ", \"owner\": "
+                + StartupBenchmark.quote(ownership.ownerOfClass(bean)) + ", " + usageFields(beans.get(bean)) + "}");
+        }
+        printArray(out, "beans", lines, true);
+
+        lines = new ArrayList<>();
+        for (String packageName : sortedByBytes(packages)) {
+            lines.add("{\"package\": " + StartupBenchmark.quote(packageName) + ", \"owners\": "
+                + stringArray(packageOwners.get(packageName)) + ", " + usageFields(packages.get(packageName)) + "}");
+        }
+        printArray(out, "packages", lines, true);
+
+        lines = new ArrayList<>();
+        for (String className : sortedByBytes(histogram)) {
+            lines.add("{\"class\": " + StartupBenchmark.quote(className) + ", \"owner\": "
+                + StartupBenchmark.quote(ownership.ownerOfClass(className)) + ", "
+                + usageFields(histogram.get(className)) + "}");
+        }
+        printArray(out, "classes", lines, false);
+
+        out.print("}");
+        out.flush();
+        return buffer.toString();
+    }
+
+    /**
+     * Keys by descending shallow bytes, then by name.
+     */
+    private static List<String> sortedByBytes(Map<String, Usage> usage) {
+        List<String> keys = new ArrayList<>(usage.keySet());
+        keys.sort((a, b) -> {
+            int bytes = Long.compare(usage.get(b).bytes, usage.get(a).bytes);
+            return bytes != 0 ? bytes : a.compareTo(b);
+        });
+        return keys;
+    }
+
+    private static String usageJson(Usage usage) {
+        return "{" + usageFields(usage) + "}";
+    }
+
+    private static String usageFields(Usage usage) {
+        return "\"shallow_bytes\": " + usage.bytes + ", \"instances\": " + usage.instances;
+    }
+
+    private static String stringArray(Set<String> values) {
+        List<String> quoted = new ArrayList<>();
+        for (String value : values) {
+            quoted.add(StartupBenchmark.quote(value));
+        }
+        return "[" + String.join(", ", quoted) + "]";
+    }
+
+    private static void printArray(PrintWriter out, String name, List<String> elements, boolean more) {
+        out.println("  \"" + name + "\": [");
+        for (int i = 0; i < elements.size(); i++) {
+            out.println("    " + elements.get(i) + (i + 1 < elements.size() ? "," : ""));
+        }
+        out.println("  ]" + (more ? "," : ""));
+    }
+}
@@ -0,0 +1,308 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Digest manifest of everything an augmentation ran with.
+ *
+ * Written by its own action from the augmentation arguments, next to the
+ * augmentation output, so that two runs (e.g. a local build and the one
+ * that populated the remote cache) can be compared with InputManifestDiff
+ * to see why the action re-ran. Keeping it out of the augmentation action
+ * means it never reads inputs that action declares unused, and it only
+ * runs when the input_manifest output group is requested.
+ *
+ * Serialized as a deterministic, tab-separated text file:
+ *   config  key  value
+ *   input   role  group  key  version  sha256  path
+ *
+ * Inputs are keyed by Maven groupId:artifactId[:classifier] where the path
+ * follows the Maven layout (so a version bump shows up as a change rather
+ * than as a removal plus an addition) and by path otherwise. The group is
+ * the extension an input belongs to: the artifactId of a runtime extension
+ * for the extension JAR and its deployment module, "application" for
+ * application JARs and "lib:groupId" for every other JAR (the flat class
+ * paths carry no dependency edges to attribute transitive JARs with).
+ */
+public class InputManifest {
+
+    private static final String HEADER = "# quarkus-bazel input manifest v1";
+
+    /**
+     * Takes the augmentation arguments (see ConfigParser) and writes the
+     * manifest to --input-manifest.
+     */
+    public static void main(String[] args) throws Exception {
+        AugmentationConfig config = ConfigParser.parse(args);
+        if (config.getInputManifest() == null) {
+            System.err.println("Usage: InputManifest <augmentation arguments> --input-manifest <path>");
+            System.exit(2);
+        }
+        create(config).write(config.getInputManifest());
+    }
+
+    /**
+     * A single input file.
+     */
+    public static class Input {
+        private final String role;
+        private final String group;
+        private final String key;
+        private final String version;
+        private final String digest;
+        private final String path;
+
+        public Input(String role, String group, String key, String version, String digest, String path) {
+            this.role = role;
+            this.group = group;
+            this.key = key;
+            this.version = version;
+            this.digest = digest;
+            this.path = path;
+        }
+
+        /** application, runtime, deployment or file. */
+        public String getRole() {
+            return role;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        /** Maven version, or "-" when unknown. */
+        public String getVersion() {
+            return version;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+
+    private final Map<String, String> config;
+    private final Map<String, Input> inputs;
+
+    public InputManifest(Map<String, String> config, Map<String, Input> inputs) {
+        this.config = Collections.unmodifiableMap(new TreeMap<>(config));
+        this.inputs = Collections.unmodifiableMap(new TreeMap<>(inputs));
+    }
+
+    /**
+     * Configuration values, sorted by key.
+     */
+    public Map<String, String> getConfig() {
+        return config;
+    }
+
+    /**
+     * Inputs by "role key", sorted.
+     */
+    public Map<String, Input> getInputs() {
+        return inputs;
+    }
+
+    /**
+     * Digest every input of an augmentation and collect its configuration.
+     */
+    public static InputManifest create(AugmentationConfig config) throws IOException {
+        Map<String, String> values = new TreeMap<>();
+        values.put("app-name", config.getApplicationName());
+        values.put("main-class", config.getMainClass());
+        values.put("prune-unused-jars", config.getPruneMode().name().toLowerCase());
+        values.put("prune-safelist", String.join(",", config.getPruneSafelist()));
+        values.put("lib-layout", config.getLibraryLayout().name().toLowerCase().replace('_', '-'));
+        values.put("output", config.getOutputZip() != null ? "zip" : "directory");
+        values.put("train-class-load-order", Boolean.toString(config.getTrainedClassLoadOrder() != null));
+        values.put("linked-libraries", Boolean.toString(!config.getLinkedLibraries().isEmpty()));
+        values.put("java.version", System.getProperty("java.version"));
+        for (Map.Entry<String, String> property : config.getBuildProperties().entrySet()) {
+            values.put("build-property." + property.getKey(), property.getValue());
+        }
+
+        // Extension groups: runtime extension JARs and their deployment modules
+        Map<Path, String> extensionGroups = new HashMap<>();
+        List<ExtensionInfo> extensions = ExtensionDetector.detect(config.getRuntimeJars());
+        for (ExtensionInfo extension : extensions) {
+            extensionGroups.put(extension.getJarPath(), extension.getArtifactId());
+        }
+        DependencyMapper.MappingResult mapping = DependencyMapper.mapExtensions(extensions, config.getDeploymentJars());
+        for (Map.Entry<ExtensionInfo, Path> mapped : mapping.getRuntimeToDeployment().entrySet()) {
+            extensionGroups.putIfAbsent(mapped.getValue(), mapped.getKey().getArtifactId());
+        }
+
+        // A JAR is listed once, under the first role it appears in
+        Map<Path, String> roles = new LinkedHashMap<>();
+        for (Path jar : config.getApplicationJars()) {
+            roles.putIfAbsent(jar, "application");
+        }
+        for (Path jar : config.getRuntimeJars()) {
+            roles.putIfAbsent(jar, "runtime");
+        }
+        for (Path jar : config.getDeploymentJars()) {
+            roles.putIfAbsent(jar, "deployment");
+        }
+        if (config.getClassLoadOrder() != null) {
+            roles.putIfAbsent(config.getClassLoadOrder(), "file");
+        }
+
+        MessageDigest sha256 = newSha256();
+        byte[] buffer = new byte[64 * 1024];
+        Map<String, Input> inputs = new TreeMap<>();
+        for (Map.Entry<Path, String> entry : roles.entrySet()) {
+            Path file = entry.getKey();
+            String role = entry.getValue();
+            ExtensionDetector.MavenCoords coords = role.equals("application") || role.equals("file")
+                ? null
+                : ExtensionDetector.parseMavenCoords(file);
+
+            String group;
+            if (role.equals("application")) {
+                group = "application";
+            } else if (role.equals("file")) {
+                group = "config";
+            } else if (extensionGroups.containsKey(file)) {
+                group = extensionGroups.get(file);
+            } else {
+                group = coords != null ? "lib:" + coords.groupId : "lib";
+            }
+
+            String key = coords != null ? mavenKey(file, coords) : file.toString();
+            Input input = new Input(role, group, key, coords != null ? coords.version : "-",
+                digest(file, sha256, buffer), file.toString());
+            inputs.putIfAbsent(role + " " + key, input);
+        }
+
+        return new InputManifest(values, inputs);
+    }
+
+    /**
+     * groupId:artifactId, plus the classifier if the file name has one.
+     */
+    private static String mavenKey(Path file, ExtensionDetector.MavenCoords coords) {
+        String fileName = file.getFileName().toString();
+        if (fileName.startsWith("processed_")) {
+            fileName = fileName.substring("processed_".length());
+        }
+        if (fileName.endsWith(".jar")) {
+            fileName = fileName.substring(0, fileName.length() - ".jar".length());
+        }
+        String key = coords.groupId + ":" + coords.artifactId;
+        String prefix = coords.artifactId + "-" + coords.version + "-";
+        return fileName.startsWith(prefix) ? key + ":" + fileName.substring(prefix.length()) : key;
+    }
+
+    private static String digest(Path file, MessageDigest sha256, byte[] buffer) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return "missing";
+        }
+        sha256.reset();
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                sha256.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha256.digest()) {
+            hex.append(String.format("%02x", b & 0xff));
+        }
+        return hex.toString();
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Map.Entry<String, String> entry : config.entrySet()) {
+                writer.write("config\t" + escape(entry.getKey()) + "\t" + escape(entry.getValue()));
+                writer.newLine();
+            }
+            for (Input input : inputs.values()) {
+                writer.write("input\t" + input.getRole() + "\t" + input.getGroup() + "\t" + input.getKey()
+                    + "\t" + input.getVersion() + "\t" + input.getDigest() + "\t" + input.getPath());
+                writer.newLine();
+            }
+        }
+    }
+
+    public static InputManifest read(Path file) throws IOException {
+        Map<String, String> config = new TreeMap<>();
+        Map<String, Input> inputs = new TreeMap<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!HEADER.equals(line)) {
+                throw new IOException("Not an input manifest: " + file);
+            }
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] parts = line.split("\t", -1);
+                if (parts[0].equals("config") && parts.length == 3) {
+                    config.put(unescape(parts[1]), unescape(parts[2]));
+                } else if (parts[0].equals("input") && parts.length == 7) {
+                    Input input = new Input(parts[1], parts[2], parts[3], parts[4], parts[5], parts[6]);
+                    inputs.put(input.getRole() + " " + input.getKey(), input);
+                } else {
+                    throw new IOException("Malformed input manifest line in " + file + ": " + line);
+                }
+            }
+        }
+
+        return new InputManifest(config, inputs);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
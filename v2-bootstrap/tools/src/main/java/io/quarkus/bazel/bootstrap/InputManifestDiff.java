@@ -0,0 +1,155 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Explains why an augmentation re-ran: diffs two input manifests.
+ *
+ * Prints changed, added and removed configuration values and input JARs,
+ * with inputs grouped by extension (see InputManifest), e.g.
+ *
+ *   config
+ *     ~ build-property.quarkus.arc.remove-unused-beans: all -> none
+ *   [quarkus-rest]
+ *     ~ runtime io.quarkus:quarkus-rest 3.17.4 -> 3.17.5
+ *   [application]
+ *     ~ application bazel-out/.../hello-world_indexed.jar (content)
+ *
+ * Exits with 0 when the manifests are identical and 1 otherwise.
+ *
+ * Usage:
+ *   InputManifestDiff <old manifest> <new manifest>
+ */
+public class InputManifestDiff {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: InputManifestDiff <old manifest> <new manifest>");
+            System.exit(2);
+        }
+        InputManifest before = InputManifest.read(Paths.get(args[0]));
+        InputManifest after = InputManifest.read(Paths.get(args[1]));
+        int differences = diff(before, after, System.out);
+        System.exit(differences == 0 ? 0 : 1);
+    }
+
+    /**
+     * Print the differences between two manifests and return their number.
+     */
+    static int diff(InputManifest before, InputManifest after, PrintStream out) {
+        List<String> config = new ArrayList<>();
+        for (String key : union(before.getConfig(), after.getConfig())) {
+            String oldValue = before.getConfig().get(key);
+            String newValue = after.getConfig().get(key);
+            if (oldValue == null) {
+                config.add("+ " + key + "=" + newValue);
+            } else if (newValue == null) {
+                config.add("- " + key + "=" + oldValue);
+            } else if (!oldValue.equals(newValue)) {
+                config.add("~ " + key + ": " + oldValue + " -> " + newValue);
+            }
+        }
+
+        Map<String, List<String>> groups = new TreeMap<>();
+        int added = 0;
+        int removed = 0;
+        int changed = 0;
+        for (String key : union(before.getInputs(), after.getInputs())) {
+            InputManifest.Input oldInput = before.getInputs().get(key);
+            InputManifest.Input newInput = after.getInputs().get(key);
+            String line;
+            InputManifest.Input grouped = newInput != null ? newInput : oldInput;
+            if (oldInput == null) {
+                line = "+ " + describe(newInput) + versionSuffix(newInput.getVersion());
+                added++;
+            } else if (newInput == null) {
+                line = "- " + describe(oldInput) + versionSuffix(oldInput.getVersion());
+                removed++;
+            } else if (!oldInput.getDigest().equals(newInput.getDigest())) {
+                line = "~ " + describe(newInput) + " " + changeOf(oldInput, newInput);
+                changed++;
+            } else {
+                continue;
+            }
+            groups.computeIfAbsent(grouped.getGroup(), g -> new ArrayList<>()).add(line);
+        }
+
+        int unchanged = 0;
+        for (Map.Entry<String, InputManifest.Input> entry : after.getInputs().entrySet()) {
+            InputManifest.Input oldInput = before.getInputs().get(entry.getKey());
+            if (oldInput != null && oldInput.getDigest().equals(entry.getValue().getDigest())) {
+                unchanged++;
+            }
+        }
+
+        if (!config.isEmpty()) {
+            out.println("config");
+            for (String line : config) {
+                out.println("  " + line);
+            }
+        }
+        // Extensions first, then the application, then plain libraries
+        List<String> order = new ArrayList<>();
+        for (String group : groups.keySet()) {
+            if (!group.equals("application") && !group.equals("config") && !isLibraryGroup(group)) {
+                order.add(group);
+            }
+        }
+        for (String group : new String[] {"application", "config"}) {
+            if (groups.containsKey(group)) {
+                order.add(group);
+            }
+        }
+        for (String group : groups.keySet()) {
+            if (isLibraryGroup(group)) {
+                order.add(group);
+            }
+        }
+        for (String group : order) {
+            out.println("[" + group + "]");
+            for (String line : groups.get(group)) {
+                out.println("  " + line);
+            }
+        }
+
+        int differences = config.size() + added + removed + changed;
+        out.println("Summary: " + config.size() + " config value(s) differ; inputs: "
+            + changed + " changed, " + added + " added, " + removed + " removed, " + unchanged + " unchanged");
+        return differences;
+    }
+
+    private static boolean isLibraryGroup(String group) {
+        return group.equals("lib") || group.startsWith("lib:");
+    }
+
+    private static String describe(InputManifest.Input input) {
+        return input.getRole() + " " + input.getKey();
+    }
+
+    private static String changeOf(InputManifest.Input before, InputManifest.Input after) {
+        if (!Objects.equals(before.getVersion(), after.getVersion())) {
+            return before.getVersion() + " -> " + after.getVersion();
+        }
+        if (!before.getPath().equals(after.getPath())) {
+            return "(content, " + before.getPath() + " -> " + after.getPath() + ")";
+        }
+        return "(content)";
+    }
+
+    private static String versionSuffix(String version) {
+        return "-".equals(version) ? "" : " " + version;
+    }
+
+    private static TreeSet<String> union(Map<String, ?> a, Map<String, ?> b) {
+        TreeSet<String> keys = new TreeSet<>(a.keySet());
+        keys.addAll(b.keySet());
+        return keys;
+    }
+}
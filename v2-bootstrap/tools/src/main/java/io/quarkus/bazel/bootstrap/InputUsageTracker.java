@@ -0,0 +1,147 @@
+package io.quarkus.bazel.bootstrap;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Records which input JARs augmentation actually used, for Bazel's
+ * unused_inputs_list.
+ *
+ * Class definitions are recorded in-process with a JFR recording
+ * (jdk.ClassDefine) while augmentation runs. Resource and service lookups
+ * leave no such event (jdk.FileRead cannot tell them apart from Quarkus
+ * opening every JAR to index it), so a JAR counts as unused only when
+ * nothing could have been opened from it: none of its classes was defined
+ * and it holds no resources besides class files and packaging metadata
+ * (manifest, Maven metadata, signatures, licences). Kept as used:
+ * - application JARs and everything on the runtime class path (copied to
+ *   lib/main, so their bytes are part of the output)
+ * - extension deployment modules (META-INF/quarkus-build-steps.list) and
+ *   anything carrying quarkus-extension metadata
+ * - JARs with service files (META-INF/services), config or any other
+ *   resource
+ *
+ * Bazel then skips re-running augmentation when only unused JARs change.
+ */
+public class InputUsageTracker {
+
+    private static final String[] EXTENSION_MARKERS = {
+        "META-INF/quarkus-build-steps.list",
+        "META-INF/quarkus-extension.properties",
+        "META-INF/quarkus-extension.yaml",
+    };
+
+    private final Recording recording;
+
+    private InputUsageTracker(Recording recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Start recording class definitions.
+     */
+    public static InputUsageTracker start() {
+        Recording recording = new Recording();
+        recording.setName("quarkus-bazel-input-usage");
+        recording.enable("jdk.ClassDefine");
+        recording.setToDisk(true);
+        recording.start();
+        return new InputUsageTracker(recording);
+    }
+
+    /**
+     * Stop recording and return the class file entries (a/b/C.class) of all
+     * classes defined so far.
+     */
+    public Set<String> stop() throws IOException {
+        recording.stop();
+        Path dump = Files.createTempFile("input-usage", ".jfr");
+        try {
+            recording.dump(dump);
+            Set<String> entries = new HashSet<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                RecordedClass definedClass = event.getClass("definedClass");
+                if (definedClass != null) {
+                    entries.add(definedClass.getName().replace('.', '/') + ".class");
+                }
+            }
+            return entries;
+        } finally {
+            recording.close();
+            Files.deleteIfExists(dump);
+        }
+    }
+
+    /**
+     * Deployment-only JARs none of whose classes were defined and that hold
+     * no resources.
+     */
+    public static List<Path> findUnusedInputs(AugmentationConfig config, Set<String> definedClasses)
+            throws IOException {
+        Set<Path> used = new HashSet<>(config.getApplicationJars());
+        used.addAll(config.getRuntimeJars());
+
+        Set<Path> candidates = new LinkedHashSet<>(config.getDeploymentJars());
+        candidates.removeAll(used);
+
+        List<Path> unused = new ArrayList<>();
+        for (Path jar : candidates) {
+            if (!isUsed(jar, definedClasses)) {
+                unused.add(jar);
+            }
+        }
+        return unused;
+    }
+
+    private static boolean isUsed(Path jar, Set<String> definedClasses) throws IOException {
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            for (String marker : EXTENSION_MARKERS) {
+                if (zip.getEntry(marker) != null) {
+                    return true;
+                }
+            }
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith("META-INF/versions/")) {
+                    int classPath = name.indexOf('/', "META-INF/versions/".length());
+                    name = classPath > 0 ? name.substring(classPath + 1) : name;
+                }
+                if (definedClasses.contains(name) || JarResources.isResource(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Write Bazel's unused_inputs_list: one input path per line.
+     */
+    public static void writeUnusedInputs(Path file, List<Path> unused) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            for (Path jar : unused) {
+                out.println(jar.toString().replace('\\', '/'));
+            }
+        }
+    }
+}
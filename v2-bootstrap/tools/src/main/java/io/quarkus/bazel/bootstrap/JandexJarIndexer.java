@@ -0,0 +1,129 @@
+package io.quarkus.bazel.bootstrap;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds a Jandex index for an application JAR and embeds it as
+ * META-INF/jandex.idx in a copy of that JAR.
+ *
+ * Quarkus reads an embedded index instead of scanning the application root
+ * during createProductionApplication, so indexing moves into its own Bazel
+ * action that only re-runs when the application classes change.
+ *
+ * Expected arguments:
+ *   --input <application.jar>
+ *   --output <indexed.jar>
+ */
+public class JandexJarIndexer {
+
+    static final String JANDEX_INDEX = "META-INF/jandex.idx";
+
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        Path output = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--input":
+                    input = Paths.get(args[++i]);
+                    break;
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (input == null || output == null) {
+            System.err.println("Usage: JandexJarIndexer --input <app.jar> --output <indexed.jar>");
+            System.exit(1);
+        }
+
+        Index index = index(input);
+        writeIndexedJar(input, output, index);
+
+        System.out.println("Indexed " + index.getKnownClasses().size() + " classes into " + output);
+    }
+
+    private static Index index(Path jar) throws IOException {
+        Indexer indexer = new Indexer();
+
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (name.endsWith(".class") && !name.equals("module-info.class")
+                        && !name.startsWith("META-INF/versions/")) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        indexer.index(in);
+                    }
+                }
+            }
+        }
+
+        return indexer.complete();
+    }
+
+    /**
+     * Copy the JAR, keeping entry order and timestamps (Bazel normalizes them),
+     * and append the index with the same fixed timestamp so the output stays
+     * deterministic.
+     */
+    private static void writeIndexedJar(Path input, Path output, Index index) throws IOException {
+        ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+        new IndexWriter(indexBytes).write(index);
+
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+
+        long timestamp = -1;
+        try (ZipFile zip = new ZipFile(input.toFile());
+             OutputStream fos = Files.newOutputStream(output);
+             ZipOutputStream out = new ZipOutputStream(fos)) {
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().equals(JANDEX_INDEX)) {
+                    continue;
+                }
+                if (timestamp < 0) {
+                    timestamp = entry.getTime();
+                }
+
+                ZipEntry copy = new ZipEntry(entry.getName());
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                if (!entry.isDirectory()) {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+
+            ZipEntry indexEntry = new ZipEntry(JANDEX_INDEX);
+            indexEntry.setTime(timestamp < 0 ? 315532800000L : timestamp);
+            out.putNextEntry(indexEntry);
+            indexBytes.writeTo(out);
+            out.closeEntry();
+        }
+    }
+}
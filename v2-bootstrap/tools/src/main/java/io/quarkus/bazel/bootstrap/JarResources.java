@@ -0,0 +1,32 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.util.Locale;
+
+/**
+ * Classifies JAR entries that a class loader resource lookup may read.
+ *
+ * Class files, directories and packaging metadata (manifest, Maven
+ * metadata, signatures, licences) are not resources; everything else is,
+ * including META-INF/resources (webjars), META-INF/services and native
+ * libraries. Used to keep JARs whose use cannot be seen in class loading.
+ */
+final class JarResources {
+
+    private JarResources() {
+    }
+
+    static boolean isResource(String name) {
+        if (name.endsWith("/") || name.endsWith(".class")) {
+            return false;
+        }
+        if (!name.startsWith("META-INF/")) {
+            return true;
+        }
+        String file = name.substring(name.lastIndexOf('/') + 1).toUpperCase(Locale.ROOT);
+        return !(name.equals("META-INF/MANIFEST.MF")
+            || name.equals("META-INF/INDEX.LIST")
+            || name.startsWith("META-INF/maven/")
+            || file.endsWith(".SF") || file.endsWith(".RSA") || file.endsWith(".DSA") || file.endsWith(".EC")
+            || file.startsWith("LICENSE") || file.startsWith("NOTICE") || file.startsWith("DEPENDENCIES"));
+    }
+}
@@ -0,0 +1,345 @@
+package io.quarkus.bazel.bootstrap;
+
+import io.quarkus.bootstrap.runner.SerializedApplication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Merges lib/main into a few uncompressed (STORED) bundle JARs.
+ *
+ * Opening and inflating hundreds of small compressed JARs is a visible part
+ * of a cold start. STORED entries are read straight from the page cache
+ * without inflation, and a handful of bundles means a handful of open files
+ * and central directories instead of hundreds.
+ *
+ * Merging is deterministic:
+ * - source JARs are processed in file name order
+ * - the first occurrence of a class or resource wins; later duplicates are
+ *   dropped and listed in the report
+ * - META-INF/services files are concatenated (unique lines, first-seen order)
+ * - per-JAR manifests, signatures, INDEX.LIST and module-info are dropped;
+ *   bundles are Multi-Release if any source JAR was
+ * - all entries get the same fixed timestamp
+ *
+ * quarkus/quarkus-application.dat is rewritten for the new lib/main so
+ * QuarkusEntryPoint and RunnerClassLoader keep working unchanged.
+ */
+public class LibraryBundler {
+
+    /**
+     * Layout of lib/main in the output.
+     */
+    public enum Layout {
+        /** Keep one JAR per dependency, as produced by Quarkus. */
+        FAST_JAR,
+        /** Merge lib/main into STORED bundle JARs. */
+        MERGED
+    }
+
+    static final String BUNDLE_PREFIX = "quarkus-bundle-";
+
+    /** Uncompressed bytes per bundle before a new bundle is started. */
+    private static final long MAX_BUNDLE_BYTES = 256L * 1024 * 1024;
+
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+
+    /**
+     * Result of bundling lib/main.
+     */
+    public static class Result {
+        private final int sourceJars;
+        private final long sourceBytes;
+        private final List<Path> bundles;
+        private final long bundleBytes;
+        private final int entries;
+        private final int mergedServices;
+        private final Map<String, Path> duplicates;
+
+        Result(int sourceJars, long sourceBytes, List<Path> bundles, long bundleBytes,
+               int entries, int mergedServices, Map<String, Path> duplicates) {
+            this.sourceJars = sourceJars;
+            this.sourceBytes = sourceBytes;
+            this.bundles = bundles;
+            this.bundleBytes = bundleBytes;
+            this.entries = entries;
+            this.mergedServices = mergedServices;
+            this.duplicates = duplicates;
+        }
+
+        public int getSourceJars() {
+            return sourceJars;
+        }
+
+        public List<Path> getBundles() {
+            return bundles;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        /**
+         * Dropped duplicate entries and the (relative) JAR they came from.
+         */
+        public Map<String, Path> getDuplicates() {
+            return duplicates;
+        }
+
+        public void writeReport(Path reportFile, String applicationName) throws IOException {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                out.println("# lib/main bundle report for " + applicationName);
+                out.println("# fast-jar: jars=" + sourceJars + " bytes=" + sourceBytes);
+                out.println("# merged:   jars=" + bundles.size() + " bytes=" + bundleBytes
+                    + " entries=" + entries
+                    + " merged-services=" + mergedServices
+                    + " duplicates=" + duplicates.size());
+                for (Path bundle : bundles) {
+                    out.println("BUNDLE " + bundle);
+                }
+                for (Map.Entry<String, Path> entry : duplicates.entrySet()) {
+                    out.println("DUPLICATE " + entry.getKey() + " from " + entry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the lib/main JARs of an output quarkus-app directory with
+     * STORED bundles and rewrite quarkus-application.dat.
+     */
+    public static Result bundle(Path appDir, String mainClass) throws IOException {
+        Path libMain = appDir.resolve("lib").resolve("main");
+        List<Path> sourceJars = listJars(libMain);
+
+        long sourceBytes = 0;
+        for (Path jar : sourceJars) {
+            sourceBytes += Files.size(jar);
+        }
+
+        // Pass 1: merge service files across all JARs
+        Map<String, Set<String>> services = new LinkedHashMap<>();
+        boolean multiRelease = false;
+        for (Path jar : sourceJars) {
+            try (JarFile zip = new JarFile(jar.toFile(), false)) {
+                Manifest manifest = zip.getManifest();
+                String release = manifest != null
+                    ? manifest.getMainAttributes().getValue(Attributes.Name.MULTI_RELEASE)
+                    : null;
+                if ("true".equalsIgnoreCase(release)) {
+                    multiRelease = true;
+                }
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (!entry.isDirectory() && entry.getName().startsWith(SERVICES_PREFIX)) {
+                        Set<String> providers = services.computeIfAbsent(entry.getName(), k -> new LinkedHashSet<>());
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            for (String line : new String(in.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+                                int comment = line.indexOf('#');
+                                String provider = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                                if (!provider.isEmpty()) {
+                                    providers.add(provider);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Pass 2: write bundles
+        Set<String> written = new LinkedHashSet<>();
+        Map<String, Path> duplicates = new LinkedHashMap<>();
+        List<Path> bundles = new ArrayList<>();
+        BundleWriter writer = null;
+        try {
+            writer = new BundleWriter(libMain.resolve(BUNDLE_PREFIX + "1.jar"), multiRelease);
+            bundles.add(writer.path);
+
+            for (Path jar : sourceJars) {
+                if (writer.bytes >= MAX_BUNDLE_BYTES) {
+                    writer.close();
+                    writer = new BundleWriter(libMain.resolve(BUNDLE_PREFIX + (bundles.size() + 1) + ".jar"),
+                        multiRelease);
+                    bundles.add(writer.path);
+                }
+                try (ZipFile zip = new ZipFile(jar.toFile())) {
+                    Enumeration<? extends ZipEntry> entries = zip.entries();
+                    while (entries.hasMoreElements()) {
+                        ZipEntry entry = entries.nextElement();
+                        String name = entry.getName();
+                        if (isDropped(name) || name.startsWith(SERVICES_PREFIX) && !entry.isDirectory()) {
+                            continue;
+                        }
+                        if (!written.add(name)) {
+                            if (!entry.isDirectory()) {
+                                duplicates.putIfAbsent(name, appDir.relativize(jar));
+                            }
+                            continue;
+                        }
+                        if (entry.isDirectory()) {
+                            writer.write(name, new byte[0]);
+                        } else {
+                            try (InputStream in = zip.getInputStream(entry)) {
+                                writer.write(name, in.readAllBytes());
+                            }
+                        }
+                    }
+                }
+            }
+
+            for (Map.Entry<String, Set<String>> service : services.entrySet()) {
+                String content = String.join("\n", service.getValue()) + "\n";
+                writer.write(service.getKey(), content.getBytes(StandardCharsets.UTF_8));
+                written.add(service.getKey());
+            }
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        for (Path jar : sourceJars) {
+            Files.delete(jar);
+        }
+
+        long bundleBytes = 0;
+        for (Path bundle : bundles) {
+            bundleBytes += Files.size(bundle);
+        }
+
+        writeApplicationData(appDir, mainClass, bundles);
+
+        List<Path> relativeBundles = new ArrayList<>();
+        for (Path bundle : bundles) {
+            relativeBundles.add(appDir.relativize(bundle));
+        }
+        return new Result(sourceJars.size(), sourceBytes, Collections.unmodifiableList(relativeBundles),
+            bundleBytes, written.size(), services.size(), duplicates);
+    }
+
+    private static boolean isDropped(String name) {
+        String upper = name.toUpperCase(Locale.ROOT);
+        // META-INF/ and the manifest are written by every bundle itself
+        if (upper.equals("META-INF/") || upper.equals(JarFile.MANIFEST_NAME) || upper.equals("META-INF/INDEX.LIST")
+                || name.endsWith("module-info.class")) {
+            return true;
+        }
+        if (upper.startsWith("META-INF/") && upper.indexOf('/', "META-INF/".length()) < 0) {
+            return upper.endsWith(".SF") || upper.endsWith(".RSA") || upper.endsWith(".DSA")
+                || upper.endsWith(".EC");
+        }
+        return false;
+    }
+
+    /**
+     * Rewrite quarkus-application.dat with the fast-jar class path order
+     * (transformed, generated, application, libraries) over the given
+     * library JARs. The parent-first packages and non-existent resources
+     * of the original file are kept (see ApplicationData); if it cannot be
+     * read, the lib/boot JARs, where fast-jar puts parent-first artifacts,
+     * are declared parent-first.
+     */
+    static void writeApplicationData(Path appDir, String mainClass, List<Path> libraries)
+            throws IOException {
+        List<Path> classPath = new ArrayList<>();
+        Path quarkusDir = appDir.resolve("quarkus");
+        Path transformed = quarkusDir.resolve("transformed-bytecode.jar");
+        if (Files.exists(transformed)) {
+            classPath.add(transformed);
+        }
+        Path generated = quarkusDir.resolve("generated-bytecode.jar");
+        if (Files.exists(generated)) {
+            classPath.add(generated);
+        }
+        classPath.addAll(listJars(appDir.resolve("app")));
+        classPath.addAll(libraries);
+
+        Path data = quarkusDir.resolve("quarkus-application.dat");
+        ApplicationData original = ApplicationData.read(data);
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        if (original != null) {
+            SerializedApplication.write(written, mainClass, appDir, classPath,
+                Collections.emptyList(), Collections.emptyList());
+            Files.write(data, original.applyTo(written.toByteArray()));
+        } else {
+            SerializedApplication.write(written, mainClass, appDir, classPath,
+                listJars(appDir.resolve("lib").resolve("boot")), Collections.emptyList());
+            Files.write(data, written.toByteArray());
+        }
+    }
+
+    static List<Path> listJars(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> jars = new ArrayList<>();
+            files.filter(p -> p.getFileName().toString().endsWith(".jar"))
+                .sorted()
+                .forEach(jars::add);
+            return jars;
+        }
+    }
+
+    /**
+     * Writes STORED bundle entries (StoredEntries) and counts their bytes.
+     */
+    private static class BundleWriter implements AutoCloseable {
+        final Path path;
+        final ZipOutputStream out;
+        long bytes;
+
+        BundleWriter(Path path, boolean multiRelease) throws IOException {
+            this.path = path;
+            this.out = new ZipOutputStream(Files.newOutputStream(path));
+            this.out.setMethod(ZipOutputStream.STORED);
+
+            Manifest manifest = new Manifest();
+            manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+            if (multiRelease) {
+                manifest.getMainAttributes().put(Attributes.Name.MULTI_RELEASE, "true");
+            }
+            ByteArrayOutputStream manifestBytes = new ByteArrayOutputStream();
+            manifest.write(manifestBytes);
+            write("META-INF/", new byte[0]);
+            write(JarFile.MANIFEST_NAME, manifestBytes.toByteArray());
+        }
+
+        void write(String name, byte[] data) throws IOException {
+            StoredEntries.write(out, name, data);
+            bytes += data.length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
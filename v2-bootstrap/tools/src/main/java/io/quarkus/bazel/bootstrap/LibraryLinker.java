@@ -0,0 +1,151 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Replaces lib/main JARs that are byte-identical to input JARs with
+ * references to Bazel-declared symlinks.
+ *
+ * Fast-jar copies most dependencies unchanged and only renames them
+ * (groupId.artifactId-version.jar). The quarkus_bootstrap rule declares a
+ * symlink per runtime JAR next to the quarkus-app directory
+ * (ctx.actions.symlink), so those bytes never have to be written, hashed or
+ * uploaded as part of the augmentation output. Here every lib/main JAR is
+ * matched by content against the linked inputs:
+ * - identical JARs are left out of the output and quarkus-application.dat
+ *   points at the symlink instead (a path relative to the quarkus-app root)
+ * - anything else (rewritten or unmatched JARs) is copied as before
+ *
+ * Symlinks whose JAR did not end up in lib/main (e.g. lib/boot JARs) are
+ * not referenced by quarkus-application.dat and are never opened.
+ */
+public class LibraryLinker {
+
+    /**
+     * A lib/main JAR served by a symlink.
+     */
+    public static class Link {
+        private final Path jar;
+        private final Path target;
+        private final Path input;
+
+        Link(Path jar, Path target, Path input) {
+            this.jar = jar;
+            this.target = target;
+            this.input = input;
+        }
+
+        /** lib/main JAR as produced by Quarkus, relative to the quarkus-app root. */
+        public Path getJar() {
+            return jar;
+        }
+
+        /** Symlink, relative to the quarkus-app root (e.g. ../app-quarkus-libs/x.jar). */
+        public Path getTarget() {
+            return target;
+        }
+
+        /** Input JAR the symlink points to. */
+        public Path getInput() {
+            return input;
+        }
+    }
+
+    /**
+     * Match lib/main of the Quarkus output against the linked input JARs.
+     *
+     * @param sourceDir quarkus-app directory produced by Quarkus
+     * @param linkedLibraries input JAR -> symlink file name
+     * @param linkDir symlink directory, relative to the output quarkus-app root
+     */
+    public static List<Link> match(Path sourceDir, Map<Path, String> linkedLibraries, Path linkDir)
+            throws IOException {
+        Map<Long, List<Map.Entry<Path, String>>> bySize = new LinkedHashMap<>();
+        for (Map.Entry<Path, String> linked : linkedLibraries.entrySet()) {
+            if (Files.isRegularFile(linked.getKey())) {
+                bySize.computeIfAbsent(Files.size(linked.getKey()), k -> new ArrayList<>()).add(linked);
+            }
+        }
+
+        List<Link> links = new ArrayList<>();
+        for (Path jar : LibraryBundler.listJars(sourceDir.resolve("lib").resolve("main"))) {
+            List<Map.Entry<Path, String>> candidates = bySize.get(Files.size(jar));
+            if (candidates == null) {
+                continue;
+            }
+            for (Map.Entry<Path, String> candidate : candidates) {
+                if (Files.mismatch(jar, candidate.getKey()) == -1) {
+                    links.add(new Link(sourceDir.relativize(jar), linkDir.resolve(candidate.getValue()),
+                        candidate.getKey()));
+                    break;
+                }
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Rewrite quarkus-application.dat of the output so that linked JARs are
+     * loaded through their symlinks. appDir must already contain every
+     * lib/main JAR that was not linked; library order stays the lib/main
+     * file name order.
+     *
+     * The Bazel symlinks do not exist inside the augmentation action, but
+     * writing the class path index opens every JAR. It is therefore written
+     * through a temporary layout that mirrors quarkus-app and the symlink
+     * directory side by side, with the links pointing at the input JARs.
+     */
+    public static void writeApplicationData(Path appDir, String mainClass, List<Link> links)
+            throws IOException {
+        Path staging = Files.createTempDirectory("linked-libraries");
+        try {
+            Path root = staging.resolve(appDir.getFileName());
+            Files.createSymbolicLink(root, appDir.toAbsolutePath());
+
+            Map<String, Path> libraries = new TreeMap<>();
+            for (Path jar : LibraryBundler.listJars(appDir.resolve("lib").resolve("main"))) {
+                libraries.put(jar.getFileName().toString(), root.resolve(appDir.relativize(jar)));
+            }
+            for (Link link : links) {
+                Path shadow = root.resolve(link.getTarget()).normalize();
+                if (!shadow.startsWith(staging) || shadow.startsWith(root)) {
+                    throw new IOException("Library symlink must be outside of quarkus-app: " + link.getTarget());
+                }
+                Files.createDirectories(shadow.getParent());
+                Files.createSymbolicLink(shadow, link.getInput().toAbsolutePath());
+                libraries.put(link.getJar().getFileName().toString(), shadow);
+            }
+
+            LibraryBundler.writeApplicationData(root, mainClass, new ArrayList<>(libraries.values()));
+        } finally {
+            deleteStaging(staging);
+        }
+    }
+
+    private static void deleteStaging(Path staging) throws IOException {
+        // Only symlinks and directories of the staging tree; never follow links
+        Files.walkFileTree(staging, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
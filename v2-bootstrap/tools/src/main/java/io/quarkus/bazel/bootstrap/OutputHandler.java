@@ -9,6 +9,10 @@ import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Handles the output from Quarkus augmentation.
@@ -24,6 +28,10 @@ import java.nio.file.attribute.BasicFileAttributes;
  *   └── quarkus-run.jar
  *
  * This handler copies/moves the output to Bazel's expected location.
+ * With the merged library layout, lib/main is then replaced by a few
+ * STORED bundle JARs (see LibraryBundler). With linked libraries, lib/main
+ * JARs identical to an input are not copied at all and are loaded through
+ * Bazel-declared symlinks instead (see LibraryLinker).
  */
 public class OutputHandler {
 
@@ -31,6 +39,16 @@ public class OutputHandler {
      * Copy augmentation output to final destination.
      */
     public static void copyOutput(AugmentResult result, AugmentationConfig config) throws IOException {
+        copyOutput(result, config, Collections.emptySet());
+    }
+
+    /**
+     * Copy augmentation output to final destination, leaving out the given
+     * files (paths relative to the quarkus-app directory). When files are
+     * left out, quarkus-application.dat is rewritten without them.
+     */
+    public static void copyOutput(AugmentResult result, AugmentationConfig config, Set<Path> excluded)
+            throws IOException {
         Path sourceDir = result.getJar().getPath().getParent();
         Path targetDir = config.getOutputDir();
 
@@ -40,15 +58,84 @@ public class OutputHandler {
         // Ensure target directory exists
         Files.createDirectories(targetDir);
 
+        Set<Path> pruned = excluded;
+        List<LibraryLinker.Link> links = Collections.emptyList();
+        if (!config.getLinkedLibraries().isEmpty()) {
+            links = LibraryLinker.match(sourceDir, config.getLinkedLibraries(), config.getLinkedLibrariesDir());
+            Set<Path> linked = new HashSet<>(excluded);
+            for (LibraryLinker.Link link : links) {
+                linked.add(link.getJar());
+            }
+            excluded = linked;
+            System.out.println("  Linking " + links.size() + " unchanged lib/main JARs to "
+                + config.getLinkedLibrariesDir());
+        }
+
         // Copy entire quarkus-app directory
-        copyDirectory(sourceDir, targetDir);
+        copyDirectory(sourceDir, targetDir, excluded);
 
         // Ensure lib/boot/ has quarkus-bootstrap-runner.jar
         ensureBootstrapRunner(config, targetDir);
 
+        if (!links.isEmpty()) {
+            LibraryLinker.writeApplicationData(targetDir, config.getMainClass(), links);
+        } else if (!pruned.isEmpty()) {
+            // The class path index still lists the pruned JARs
+            LibraryBundler.writeApplicationData(targetDir, config.getMainClass(),
+                LibraryBundler.listJars(targetDir.resolve("lib").resolve("main")));
+        }
+
+        if (config.getLibraryLayout() == LibraryBundler.Layout.MERGED) {
+            bundleLibraries(config, targetDir);
+        }
+
         System.out.println("  Output copied successfully");
     }
 
+    /**
+     * Pack the final quarkus-app directory into the single-archive output.
+     * BootstrapAugmentor removes the staging directory afterwards.
+     */
+    public static void writeArchive(AugmentationConfig config) throws IOException {
+        Path zip = config.getOutputZip();
+        System.out.println("  Packing " + config.getOutputDir() + " -> " + zip);
+        AppArchive.write(config.getOutputDir(), zip);
+        System.out.println("  Archive written (" + formatSize(Files.size(zip)) + ")");
+    }
+
+    static void deleteDirectory(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Merge lib/main into STORED bundles and report the change against the
+     * fast-jar layout.
+     */
+    private static void bundleLibraries(AugmentationConfig config, Path targetDir) throws IOException {
+        System.out.println("  Merging lib/main into STORED bundles...");
+        LibraryBundler.Result bundled = LibraryBundler.bundle(targetDir, config.getMainClass());
+
+        System.out.println("    " + bundled.getSourceJars() + " JARs -> " + bundled.getBundles().size()
+            + " bundle(s), " + bundled.getEntries() + " entries, "
+            + bundled.getDuplicates().size() + " duplicate entries dropped");
+
+        if (config.getBundleReport() != null) {
+            bundled.writeReport(config.getBundleReport(), config.getApplicationName());
+        }
+    }
+
     /**
      * Ensure lib/boot/ directory has the bootstrap runner JAR.
      * This is needed to run the Quarkus application.
@@ -157,7 +244,7 @@ public class OutputHandler {
         });
     }
 
-    private static void copyDirectory(Path source, Path target) throws IOException {
+    private static void copyDirectory(Path source, Path target, Set<Path> excluded) throws IOException {
         Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
@@ -168,6 +255,10 @@ public class OutputHandler {
 
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (excluded.contains(source.relativize(file))) {
+                    System.out.println("    Excluded: " + source.relativize(file));
+                    return FileVisitResult.CONTINUE;
+                }
                 Path targetFile = target.resolve(source.relativize(file));
                 Files.copy(file, targetFile, StandardCopyOption.REPLACE_EXISTING);
                 return FileVisitResult.CONTINUE;
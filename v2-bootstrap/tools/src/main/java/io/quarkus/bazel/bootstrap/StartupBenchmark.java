@@ -0,0 +1,351 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup and footprint benchmark for an augmented quarkus-app directory.
+ *
+ * Every run starts the application on a free port and measures, from JVM
+ * process start:
+ * - time until the log line containing "Listening on"
+ * - time until the first successful (2xx) response of the probe path
+ * - resident set size right after that first response (Linux only)
+ *
+ * Runs are repeated for every JVM flag set of the matrix and summarized as
+ * p50/p95/min/max. Results are written as JSON so they can be compared
+ * between commits.
+ *
+ * Expected arguments:
+ *   --app-dir <quarkus-app>     (directory or quarkus-app.zip)
+ *   --runs <n>                  (default 10)
+ *   --path <probe path>         (default /hello)
+ *   --timeout-seconds <n>       (default 60, per run)
+ *   --config <name>=<flags>     (repeatable, flags separated by spaces)
+ *   --jvm-flag <flag>           (repeatable, added to every config, e.g.
+ *                                -Dquarkus.config.locations=...)
+ *   --output <file.json>        (default: stdout only)
+ */
+public class StartupBenchmark {
+
+    private static final String LISTENING_MARKER = "Listening on";
+
+    /**
+     * Measurements of a single run, in milliseconds / kilobytes (-1 if unknown).
+     */
+    static class Run {
+        volatile long listeningMs = -1;
+        long firstResponseMs = -1;
+        long rssKb = -1;
+    }
+
+    public static void main(String[] rawArgs) throws Exception {
+        String[] args = ConfigParser.expandParamFiles(rawArgs);
+        Path appDir = null;
+        int runs = 10;
+        String path = "/hello";
+        long timeoutSeconds = 60;
+        Path output = null;
+        Map<String, List<String>> matrix = new LinkedHashMap<>();
+        List<String> commonFlags = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--app-dir":
+                    appDir = Paths.get(args[++i]);
+                    break;
+                case "--runs":
+                    runs = Integer.parseInt(args[++i]);
+                    break;
+                case "--path":
+                    path = args[++i];
+                    break;
+                case "--timeout-seconds":
+                    timeoutSeconds = Long.parseLong(args[++i]);
+                    break;
+                case "--config": {
+                    String[] parts = args[++i].split("=", 2);
+                    List<String> flags = new ArrayList<>();
+                    if (parts.length == 2) {
+                        for (String flag : parts[1].trim().split("\\s+")) {
+                            if (!flag.isEmpty()) {
+                                flags.add(flag);
+                            }
+                        }
+                    }
+                    matrix.put(parts[0], flags);
+                    break;
+                }
+                case "--jvm-flag":
+                    commonFlags.add(args[++i]);
+                    break;
+                case "--output":
+                    output = Paths.get(args[++i]);
+                    break;
+                default:
+                    System.err.println("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (appDir == null) {
+            System.err.println("Usage: StartupBenchmark --app-dir <quarkus-app> [--runs n] [--path /hello]"
+                + " [--config name=flags]... [--jvm-flag flag]... [--output file.json]");
+            System.exit(1);
+        }
+        if (matrix.isEmpty()) {
+            matrix.put("default", Collections.emptyList());
+        }
+        Path runDir = appDir;
+        Path extracted = null;
+        if (Files.isRegularFile(appDir)) {
+            // Single-archive output: unpack once, outside the measured runs
+            extracted = Files.createTempDirectory("quarkus-app");
+            AppArchive.extract(appDir, extracted);
+            runDir = extracted;
+        }
+
+        Map<String, List<Run>> results = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, List<String>> config : matrix.entrySet()) {
+                List<String> flags = new ArrayList<>(config.getValue());
+                flags.addAll(commonFlags);
+                List<Run> configRuns = new ArrayList<>();
+                for (int run = 1; run <= runs; run++) {
+                    Run result = runOnce(runDir, flags, path, timeoutSeconds);
+                    System.err.println("[" + config.getKey() + "] run " + run + "/" + runs
+                        + ": listening=" + result.listeningMs + "ms"
+                        + " first-response=" + result.firstResponseMs + "ms"
+                        + " rss=" + result.rssKb + "KB");
+                    configRuns.add(result);
+                }
+                results.put(config.getKey(), configRuns);
+            }
+        } finally {
+            if (extracted != null) {
+                OutputHandler.deleteDirectory(extracted);
+            }
+        }
+
+        String json = toJson(appDir, path, runs, matrix, results);
+        System.out.println(json);
+        if (output != null) {
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            Files.writeString(output, json + "\n", StandardCharsets.UTF_8);
+        }
+    }
+
+    static Run runOnce(Path appDir, List<String> jvmFlags, String path, long timeoutSeconds)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> flags = new ArrayList<>(jvmFlags);
+        flags.add("-Dquarkus.http.port=" + port);
+        flags.add("-Dquarkus.http.host=127.0.0.1");
+
+        Run run = new Run();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(AppLauncher.command(appDir, flags))
+            .directory(appDir.toFile())
+            .redirectErrorStream(true)
+            .start();
+
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (run.listeningMs < 0 && line.contains(LISTENING_MARKER)) {
+                        run.listeningMs = elapsedMs(start);
+                    }
+                }
+            } catch (IOException e) {
+                // Stream closed when the process is destroyed
+            }
+        }, "startup-benchmark-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            URL url = new URL("http://127.0.0.1:" + port + path);
+            long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (respondsOk(url)) {
+                    run.firstResponseMs = elapsedMs(start);
+                    run.rssKb = rssKb(process.pid());
+                    break;
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            reader.join(1000);
+        }
+
+        return run;
+    }
+
+    private static boolean respondsOk(URL url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout(100);
+            connection.setReadTimeout(1000);
+            try {
+                int status = connection.getResponseCode();
+                return status >= 200 && status < 300;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * VmRSS of a process from /proc, or -1 where /proc is not available.
+     */
+    static long rssKb(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux or process already gone
+        }
+        return -1;
+    }
+
+    /**
+     * Nearest-rank percentile over the measured (non-negative) values.
+     */
+    static long percentile(List<Long> values, double percentile) {
+        if (values.isEmpty()) {
+            return -1;
+        }
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static String toJson(Path appDir, String path, int runs, Map<String, List<String>> matrix,
+                                 Map<String, List<Run>> results) {
+        StringWriter buffer = new StringWriter();
+        PrintWriter out = new PrintWriter(buffer);
+        out.println("{");
+        out.println("  \"app\": " + quote(appDir.toString()) + ",");
+        out.println("  \"path\": " + quote(path) + ",");
+        out.println("  \"runs\": " + runs + ",");
+        out.println("  \"configs\": [");
+
+        int index = 0;
+        for (Map.Entry<String, List<Run>> entry : results.entrySet()) {
+            List<Run> configRuns = entry.getValue();
+            List<Long> listening = new ArrayList<>();
+            List<Long> firstResponse = new ArrayList<>();
+            List<Long> rss = new ArrayList<>();
+            int failures = 0;
+            for (Run run : configRuns) {
+                if (run.listeningMs >= 0) {
+                    listening.add(run.listeningMs);
+                }
+                if (run.firstResponseMs >= 0) {
+                    firstResponse.add(run.firstResponseMs);
+                } else {
+                    failures++;
+                }
+                if (run.rssKb >= 0) {
+                    rss.add(run.rssKb);
+                }
+            }
+
+            out.println("    {");
+            out.println("      \"name\": " + quote(entry.getKey()) + ",");
+            List<String> flags = new ArrayList<>();
+            for (String flag : matrix.get(entry.getKey())) {
+                flags.add(quote(flag));
+            }
+            out.println("      \"jvm_flags\": [" + String.join(", ", flags) + "],");
+            out.println("      \"failures\": " + failures + ",");
+            out.println("      \"listening_ms\": " + summary(listening) + ",");
+            out.println("      \"first_response_ms\": " + summary(firstResponse) + ",");
+            out.println("      \"rss_kb\": " + summary(rss) + ",");
+            out.println("      \"samples\": [");
+            for (int i = 0; i < configRuns.size(); i++) {
+                Run run = configRuns.get(i);
+                out.println("        {\"listening_ms\": " + run.listeningMs
+                    + ", \"first_response_ms\": " + run.firstResponseMs
+                    + ", \"rss_kb\": " + run.rssKb + "}"
+                    + (i + 1 < configRuns.size() ? "," : ""));
+            }
+            out.println("      ]");
+            out.println("    }" + (++index < results.size() ? "," : ""));
+        }
+
+        out.println("  ]");
+        out.print("}");
+        out.flush();
+        return buffer.toString();
+    }
+
+    private static String summary(List<Long> values) {
+        long min = values.stream().mapToLong(Long::longValue).min().orElse(-1);
+        long max = values.stream().mapToLong(Long::longValue).max().orElse(-1);
+        return "{\"p50\": " + percentile(values, 50) + ", \"p95\": " + percentile(values, 95)
+            + ", \"min\": " + min + ", \"max\": " + max + "}";
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,43 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes deterministic STORED zip entries (AppArchive, LibraryBundler).
+ */
+final class StoredEntries {
+
+    /**
+     * 1980-02-01 00:00, a fixed DOS-representable entry timestamp. Set as
+     * local time: setTime(long) converts through the default timezone, so
+     * the bytes would differ between executors.
+     */
+    static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private StoredEntries() {
+    }
+
+    /**
+     * Write one STORED entry with precomputed size and CRC and the fixed
+     * timestamp.
+     */
+    static void write(ZipOutputStream out, String name, byte[] data) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(data.length);
+        entry.setCompressedSize(data.length);
+        entry.setCrc(crc.getValue());
+        entry.setTimeLocal(ENTRY_TIME);
+
+        out.putNextEntry(entry);
+        out.write(data);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,431 @@
+package io.quarkus.bazel.bootstrap;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds lib/main JARs that no reachable class is ever loaded from.
+ *
+ * Reachability is computed at class level over the augmented output:
+ * - Roots: every class in app/ and quarkus/*.jar (application + generated bytecode)
+ * - Roots: META-INF/services providers declared by generated code and extensions
+ * - Edges: every class name in a class file's constant pool, including
+ *   descriptors, signatures and string literals (covers Class.forName("..."))
+ * - Edges: providers of a service interface once the interface is reachable
+ *
+ * Extension runtime JARs and safelisted JARs are always kept, since Quarkus
+ * and some libraries load classes from them by name at runtime. So are JARs
+ * holding resources other than service files (webjars, config, message
+ * bundles, native libraries): getResource lookups leave no class reference.
+ */
+public class UnusedJarAnalyzer {
+
+    private static final String SERVICES_PREFIX = "META-INF/services/";
+    private static final String VERSIONS_PREFIX = "META-INF/versions/";
+
+    /**
+     * How the analysis result is applied.
+     */
+    public enum Mode {
+        /** Do not run the analysis. */
+        OFF,
+        /** Run the analysis and write a report only. */
+        REPORT,
+        /** Run the analysis and leave unused JARs out of lib/main. */
+        EXCLUDE
+    }
+
+    /**
+     * Result of the analysis.
+     */
+    public static class Result {
+        private final Map<Path, Integer> unusedJars;
+        private final Set<Path> safelistedJars;
+        private final Set<Path> extensionJars;
+        private final Set<Path> resourceJars;
+        private final int analyzedJars;
+        private final int reachableClasses;
+
+        Result(Map<Path, Integer> unusedJars, Set<Path> safelistedJars, Set<Path> extensionJars,
+               Set<Path> resourceJars, int analyzedJars, int reachableClasses) {
+            this.unusedJars = unusedJars;
+            this.safelistedJars = safelistedJars;
+            this.extensionJars = extensionJars;
+            this.resourceJars = resourceJars;
+            this.analyzedJars = analyzedJars;
+            this.reachableClasses = reachableClasses;
+        }
+
+        /**
+         * Unused JARs (relative to the quarkus-app directory) and their class counts.
+         */
+        public Map<Path, Integer> getUnusedJars() {
+            return unusedJars;
+        }
+
+        public Set<Path> getSafelistedJars() {
+            return safelistedJars;
+        }
+
+        public Set<Path> getExtensionJars() {
+            return extensionJars;
+        }
+
+        /**
+         * JARs without reachable classes that are kept for their resources.
+         */
+        public Set<Path> getResourceJars() {
+            return resourceJars;
+        }
+
+        public int getAnalyzedJars() {
+            return analyzedJars;
+        }
+
+        public int getReachableClasses() {
+            return reachableClasses;
+        }
+
+        public void writeReport(Path reportFile, String applicationName, Mode mode) throws IOException {
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8))) {
+                out.println("# Unused dependency report for " + applicationName);
+                out.println("# mode=" + mode.name().toLowerCase()
+                    + " analyzed=" + analyzedJars
+                    + " unused=" + unusedJars.size()
+                    + " reachable-classes=" + reachableClasses);
+                for (Map.Entry<Path, Integer> entry : unusedJars.entrySet()) {
+                    out.println("UNUSED " + entry.getKey() + " classes=" + entry.getValue());
+                }
+                for (Path jar : safelistedJars) {
+                    out.println("KEPT-SAFELIST " + jar);
+                }
+                for (Path jar : extensionJars) {
+                    out.println("KEPT-EXTENSION " + jar);
+                }
+                for (Path jar : resourceJars) {
+                    out.println("KEPT-RESOURCES " + jar);
+                }
+            }
+        }
+    }
+
+    /**
+     * Analyze an augmented quarkus-app directory.
+     *
+     * @param appDir   the quarkus-app directory produced by augmentation
+     * @param safelist substrings matched against lib/main JAR file names
+     */
+    public static Result analyze(Path appDir, List<String> safelist) throws IOException {
+        List<Path> libJars = listJars(appDir.resolve("lib").resolve("main"));
+        List<Path> rootJars = new ArrayList<>();
+        rootJars.addAll(listJars(appDir.resolve("app")));
+        rootJars.addAll(listJars(appDir.resolve("quarkus")));
+
+        Map<Path, ZipFile> zips = new LinkedHashMap<>();
+        try {
+            for (Path jar : rootJars) {
+                zips.put(jar, new ZipFile(jar.toFile()));
+            }
+            for (Path jar : libJars) {
+                zips.put(jar, new ZipFile(jar.toFile()));
+            }
+
+            // Class -> owning JAR (first one wins, like a flat class path)
+            Map<String, Path> classOwner = new HashMap<>();
+            Map<String, List<String>> serviceProviders = new HashMap<>();
+            Deque<String> queue = new ArrayDeque<>();
+            Set<String> reachable = new HashSet<>();
+            Set<Path> jarsWithResources = new HashSet<>();
+
+            Set<Path> extensionJars = new TreeSet<>();
+            for (Path jar : libJars) {
+                if (ExtensionDetector.isQuarkusExtension(jar)) {
+                    extensionJars.add(jar);
+                }
+            }
+
+            for (Map.Entry<Path, ZipFile> entry : zips.entrySet()) {
+                Path jar = entry.getKey();
+                boolean rootJar = rootJars.contains(jar);
+                boolean trustedServices = rootJar || extensionJars.contains(jar);
+
+                Enumeration<? extends ZipEntry> entries = entry.getValue().entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry zipEntry = entries.nextElement();
+                    String name = zipEntry.getName();
+
+                    if (!name.startsWith(SERVICES_PREFIX) && JarResources.isResource(name)) {
+                        jarsWithResources.add(jar);
+                    }
+
+                    String className = toClassName(name);
+                    if (className != null) {
+                        classOwner.putIfAbsent(className, jar);
+                        if (rootJar) {
+                            enqueue(className, reachable, queue);
+                        }
+                    } else if (name.startsWith(SERVICES_PREFIX) && !zipEntry.isDirectory()) {
+                        String service = name.substring(SERVICES_PREFIX.length()).replace('.', '/');
+                        List<String> providers = readServiceFile(entry.getValue(), zipEntry);
+                        if (trustedServices) {
+                            enqueue(service, reachable, queue);
+                            for (String provider : providers) {
+                                enqueue(provider, reachable, queue);
+                            }
+                        } else {
+                            serviceProviders.computeIfAbsent(service, k -> new ArrayList<>()).addAll(providers);
+                        }
+                    }
+                }
+            }
+
+            // Breadth-first walk of the class reference graph
+            while (!queue.isEmpty()) {
+                String className = queue.poll();
+
+                List<String> providers = serviceProviders.remove(className);
+                if (providers != null) {
+                    for (String provider : providers) {
+                        enqueue(provider, reachable, queue);
+                    }
+                }
+
+                Path owner = classOwner.get(className);
+                if (owner == null) {
+                    continue;
+                }
+                ZipFile zip = zips.get(owner);
+                ZipEntry classEntry = zip.getEntry(className + ".class");
+                if (classEntry == null) {
+                    continue;
+                }
+                byte[] bytes;
+                try (InputStream in = zip.getInputStream(classEntry)) {
+                    bytes = in.readAllBytes();
+                }
+                for (String reference : referencedNames(bytes)) {
+                    if (classOwner.containsKey(reference) || serviceProviders.containsKey(reference)) {
+                        enqueue(reference, reachable, queue);
+                    }
+                }
+            }
+
+            // Count reachable classes per lib/main JAR
+            Map<Path, Integer> totalClasses = new HashMap<>();
+            Set<Path> usedJars = new HashSet<>();
+            for (Map.Entry<String, Path> entry : classOwner.entrySet()) {
+                totalClasses.merge(entry.getValue(), 1, Integer::sum);
+                if (reachable.contains(entry.getKey())) {
+                    usedJars.add(entry.getValue());
+                }
+            }
+
+            Map<Path, Integer> unused = new LinkedHashMap<>();
+            Set<Path> safelisted = new TreeSet<>();
+            Set<Path> keptExtensions = new TreeSet<>();
+            Set<Path> keptResources = new TreeSet<>();
+            for (Path jar : libJars) {
+                if (usedJars.contains(jar)) {
+                    continue;
+                }
+                Path relative = appDir.relativize(jar);
+                if (extensionJars.contains(jar)) {
+                    keptExtensions.add(relative);
+                } else if (isSafelisted(jar, safelist)) {
+                    safelisted.add(relative);
+                } else if (jarsWithResources.contains(jar)) {
+                    keptResources.add(relative);
+                } else {
+                    unused.put(relative, totalClasses.getOrDefault(jar, 0));
+                }
+            }
+
+            return new Result(Collections.unmodifiableMap(unused), safelisted, keptExtensions, keptResources,
+                libJars.size(), reachable.size());
+        } finally {
+            for (ZipFile zip : zips.values()) {
+                zip.close();
+            }
+        }
+    }
+
+    private static void enqueue(String className, Set<String> reachable, Deque<String> queue) {
+        if (reachable.add(className)) {
+            queue.add(className);
+        }
+    }
+
+    private static boolean isSafelisted(Path jar, List<String> safelist) {
+        String fileName = jar.getFileName().toString();
+        for (String pattern : safelist) {
+            if (!pattern.isEmpty() && fileName.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Path> listJars(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream
+                .filter(p -> p.getFileName().toString().endsWith(".jar"))
+                .sorted()
+                .collect(java.util.stream.Collectors.toList());
+        }
+    }
+
+    /**
+     * Map a JAR entry name to an internal class name, or null for non-class entries.
+     */
+    private static String toClassName(String entryName) {
+        if (!entryName.endsWith(".class")) {
+            return null;
+        }
+        String name = entryName;
+        if (name.startsWith(VERSIONS_PREFIX)) {
+            int slash = name.indexOf('/', VERSIONS_PREFIX.length());
+            if (slash < 0) {
+                return null;
+            }
+            name = name.substring(slash + 1);
+        }
+        name = name.substring(0, name.length() - ".class".length());
+        if (name.equals("module-info") || name.endsWith("package-info")) {
+            return null;
+        }
+        return name;
+    }
+
+    private static List<String> readServiceFile(ZipFile zip, ZipEntry entry) throws IOException {
+        List<String> providers = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(zip.getInputStream(entry), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) {
+                    line = line.substring(0, comment);
+                }
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    providers.add(line.replace('.', '/'));
+                }
+            }
+        }
+        return providers;
+    }
+
+    /**
+     * Collect every candidate class name mentioned in a class file's constant pool.
+     *
+     * All CONSTANT_Utf8 entries are inspected, which covers class references,
+     * field/method descriptors, generic signatures, annotation types and
+     * string literals. Over-approximation only ever keeps more JARs.
+     */
+    static Set<String> referencedNames(byte[] classBytes) throws IOException {
+        Set<String> names = new HashSet<>();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(classBytes));
+
+        if (in.readInt() != 0xCAFEBABE) {
+            return names;
+        }
+        in.readUnsignedShort(); // minor
+        in.readUnsignedShort(); // major
+        int count = in.readUnsignedShort();
+
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    addNames(in.readUTF(), names);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                default:
+                    // Unknown constant; stop rather than misparse
+                    return names;
+            }
+        }
+
+        return names;
+    }
+
+    private static void addNames(String value, Set<String> names) {
+        if (value.isEmpty()) {
+            return;
+        }
+        // Plain internal name or dotted name (e.g. a Class.forName literal)
+        names.add(value);
+        if (value.indexOf('.') > 0) {
+            names.add(value.replace('.', '/'));
+        }
+        // Descriptors and signatures: Lpkg/Name; or Lpkg/Name<...>;
+        int start = value.indexOf('L');
+        while (start >= 0) {
+            int end = start + 1;
+            while (end < value.length()) {
+                char c = value.charAt(end);
+                if (c == ';' || c == '<') {
+                    break;
+                }
+                end++;
+            }
+            if (end < value.length() && end > start + 1) {
+                names.add(value.substring(start + 1, end));
+            }
+            start = value.indexOf('L', start + 1);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package io.quarkus.bazel.jmh;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ArcContainer;
+import io.quarkus.arc.InstanceHandle;
+import io.quarkus.runtime.Application;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * JMH state that boots the augmented Quarkus application once per fork.
+ *
+ * quarkus_jmh_benchmark runs JMH on the class path of the augmented
+ * quarkus-app (transformed and generated bytecode first), so beans looked
+ * up here are the real ArC beans: client proxies, interceptors and
+ * generated code included.
+ *
+ * Use it as a benchmark method or @Setup parameter:
+ *
+ *   @Benchmark
+ *   public String greet(QuarkusApp app) {
+ *       return app.bean(GreetingService.class).greet("bazel");
+ *   }
+ *
+ * The HTTP server listens on a random port unless quarkus.http.port is set.
+ */
+@State(Scope.Benchmark)
+public class QuarkusApp {
+
+    /** Application class generated by augmentation. */
+    static final String APPLICATION_CLASS = "io.quarkus.runner.ApplicationImpl";
+
+    private Application application;
+
+    @Setup
+    public void start() throws Exception {
+        if (System.getProperty("quarkus.http.port") == null) {
+            System.setProperty("quarkus.http.port", "0");
+        }
+        application = (Application) Class.forName(APPLICATION_CLASS, true, QuarkusApp.class.getClassLoader())
+            .getDeclaredConstructor()
+            .newInstance();
+        application.start(new String[0]);
+    }
+
+    @TearDown
+    public void stop() {
+        if (application != null) {
+            application.stop();
+            application = null;
+        }
+    }
+
+    /**
+     * The running application's ArC container.
+     */
+    public ArcContainer container() {
+        return Arc.container();
+    }
+
+    /**
+     * Look up a bean (usually its client proxy) by type and qualifiers.
+     */
+    public <T> T bean(Class<T> type, Annotation... qualifiers) {
+        InstanceHandle<T> handle = Arc.container().instance(type, qualifiers);
+        if (!handle.isAvailable()) {
+            throw new IllegalStateException("No bean of type " + type.getName() + " in the application");
+        }
+        return handle.get();
+    }
+}